@@ -0,0 +1,141 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.Project;
+import com.tasksync.entity.Task;
+import com.tasksync.entity.TaskPriority;
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.entity.User;
+import com.tasksync.entity.WorkflowEventType;
+import com.tasksync.entity.WorkflowRule;
+import com.tasksync.scheduler.SlaDeadlineIndex;
+import com.tasksync.workflow.WorkflowRuleCompiler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared object graph for the workflow benchmarks: a task with assignee, creator and
+ * manager, stubbed repositories, and generated rule sets.
+ */
+public final class BenchmarkFixtures {
+
+    static final TaskStatus[] STATUSES = TaskStatus.values();
+    static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private BenchmarkFixtures() {
+    }
+
+    // ========================= ENTITIES =========================
+    static Task task() {
+
+        Project project = new Project();
+        project.setId(1L);
+        project.setName("Benchmark");
+        project.setManager(user(1L, "manager"));
+
+        Task task = new Task();
+        task.setId(42L);
+        task.setTitle("Benchmark task");
+        task.setProject(project);
+        task.setAssignee(user(2L, "assignee"));
+        task.setCreatedBy(user(3L, "creator"));
+        task.setStatus(TaskStatus.DONE);
+        task.setPriority(TaskPriority.HIGH);
+        task.setSlaHours(8);
+
+        return task;
+    }
+
+    private static User user(long id, String username) {
+
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+
+    // ========================= RULES =========================
+    public enum ConditionShape {
+        NONE, STATUS, STATUS_PRIORITY
+    }
+
+    public enum ActionMix {
+        NOTIFY, PRIORITY, MIXED
+    }
+
+    static List<WorkflowRule> rules(int count, ConditionShape shape, ActionMix mix) {
+
+        List<WorkflowRule> rules = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+
+            WorkflowRule rule = new WorkflowRule();
+            rule.setId((long) i + 1);
+            rule.setEventType(WorkflowEventType.TASK_STATUS_CHANGED);
+            rule.setConditionsJson(conditionsJson(i, shape));
+            rule.setActionsJson(actionsJson(mix));
+            rules.add(rule);
+        }
+
+        return rules;
+    }
+
+    static String conditionsJson(int i, ConditionShape shape) {
+
+        return switch (shape) {
+            case NONE -> null;
+            case STATUS -> "{\"toStatus\":\"" + STATUSES[i % STATUSES.length] + "\"}";
+            case STATUS_PRIORITY -> "{\"toStatus\":\"" + STATUSES[i % STATUSES.length]
+                    + "\",\"priority\":\"" + PRIORITIES[(i / STATUSES.length) % PRIORITIES.length] + "\"}";
+        };
+    }
+
+    static String actionsJson(ActionMix mix) {
+
+        return switch (mix) {
+            case NOTIFY -> "{\"notify\":[\"ASSIGNEE\",\"MANAGER\"]}";
+            case PRIORITY -> "{\"setPriority\":\"HIGH\"}";
+            case MIXED -> "{\"notify\":[\"ASSIGNEE\"],\"setPriority\":\"HIGH\",\"resetSla\":true,\"escalate\":true}";
+        };
+    }
+
+    // ========================= SERVICES =========================
+    static WorkflowActionExecutor executor(WorkflowRuleCompiler compiler) {
+
+        // Not started, so pushes are delivered inline to a no-op channel; capacity 0 keeps no frames
+        NotificationReplayBuffer replayBuffer = new NotificationReplayBuffer();
+        WsNotificationSender sender = new WsNotificationSender(
+                new SimpMessagingTemplate((message, timeout) -> true),
+                meterRegistry(),
+                replayBuffer
+        );
+
+        NotificationService notificationService = new NotificationService(
+                InMemoryRepositories.notifications(),
+                InMemoryRepositories.users(),
+                sender,
+                // Nothing reads counts, so no counter is ever loaded or adjusted
+                new NotificationUnreadCounters(InMemoryRepositories.notifications(), sender),
+                // Window is 0 outside Spring, so batches pass through unmerged
+                new NotificationCoalescer(InMemoryRepositories.notifications(), sender, meterRegistry()),
+                replayBuffer
+        );
+
+        // Benchmark task is DONE, so the SLA index only ever untracks and its wheel is never started
+        return new WorkflowActionExecutor(
+                notificationService,
+                InMemoryRepositories.tasks(),
+                compiler,
+                new SlaDeadlineIndex(meterRegistry()),
+                // Benchmark projects have no SLA calendar; a lookup would throw from the stubs
+                new SlaCalendarService(InMemoryRepositories.slaCalendars(), InMemoryRepositories.projects())
+        );
+    }
+
+    static SimpleMeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -0,0 +1,89 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.WorkflowRule;
+import com.tasksync.repository.NotificationRepository;
+import com.tasksync.repository.ProjectRepository;
+import com.tasksync.repository.SlaCalendarRepository;
+import com.tasksync.repository.TaskRepository;
+import com.tasksync.repository.UserRepository;
+import com.tasksync.repository.WorkflowRuleRepository;
+import com.tasksync.repository.WorkflowTimerRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Proxy-backed repository stubs so benchmarks measure the engine, not a database.
+ * Any method without a stubbed answer throws.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static WorkflowRuleRepository workflowRules(List<WorkflowRule> rules) {
+
+        return stub(WorkflowRuleRepository.class, Map.of(
+                "findByEnabledTrueOrderByIdAsc", args -> rules,
+                "findByEnabledFalseOrderByIdAsc", args -> List.of(),
+                "findByEventTypeAndEnabledTrue", args -> rules.stream()
+                        .filter(r -> r.getEventType() == args[0])
+                        .toList(),
+                "fingerprint", args -> List.<Object[]>of(new Object[]{(long) rules.size()})
+        ));
+    }
+
+    // save/saveAll echo their argument back
+    static TaskRepository tasks() {
+        return stub(TaskRepository.class, Map.of("save", args -> args[0], "saveAll", args -> args[0]));
+    }
+
+    static NotificationRepository notifications() {
+        return stub(NotificationRepository.class, Map.of(
+                "save", args -> args[0],
+                "saveAll", args -> args[0],
+                "insertAll", args -> ((List<?>) args[0]).size()
+        ));
+    }
+
+    static WorkflowTimerRepository workflowTimers() {
+        return stub(WorkflowTimerRepository.class, Map.of("deleteStale", args -> 0, "saveAll", args -> args[0]));
+    }
+
+    static UserRepository users() {
+        return stub(UserRepository.class, Map.of());
+    }
+
+    static SlaCalendarRepository slaCalendars() {
+        return stub(SlaCalendarRepository.class, Map.of());
+    }
+
+    static ProjectRepository projects() {
+        return stub(ProjectRepository.class, Map.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+
+        return (T) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+
+                    return switch (method.getName()) {
+                        case "toString" -> type.getSimpleName() + "Stub";
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                }
+        );
+    }
+}
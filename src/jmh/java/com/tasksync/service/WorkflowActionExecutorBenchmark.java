@@ -0,0 +1,59 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.workflow.ActionPlan;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowRuleCompiler;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WorkflowActionExecutor#execute} per action mix, from a compiled plan and from
+ * raw JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowActionExecutorBenchmark {
+
+    @Param({"NOTIFY", "PRIORITY", "MIXED"})
+    public BenchmarkFixtures.ActionMix actions;
+
+    private WorkflowActionExecutor executor;
+    private String actionsJson;
+    private ActionPlan plan;
+    private WorkflowContext context;
+
+    @Setup
+    public void setUp() {
+
+        WorkflowRuleCompiler compiler = new WorkflowRuleCompiler();
+        executor = BenchmarkFixtures.executor(compiler);
+
+        actionsJson = BenchmarkFixtures.actionsJson(actions);
+        plan = compiler.compileActions(actionsJson);
+
+        context = WorkflowContext.forStatusChange(BenchmarkFixtures.task(), TaskStatus.IN_PROGRESS, TaskStatus.DONE);
+    }
+
+    // Escalate only fires once per task, so reset it between invocations
+    @Setup(Level.Invocation)
+    public void resetTask() {
+        context.task().setEscalated(false);
+    }
+
+    @Benchmark
+    public void compiledPlan() {
+        executor.execute(plan, context);
+    }
+
+    @Benchmark
+    public void jsonPlan() {
+        executor.execute(actionsJson, context);
+    }
+}
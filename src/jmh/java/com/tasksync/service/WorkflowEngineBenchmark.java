@@ -0,0 +1,102 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.Task;
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.entity.WorkflowRule;
+import com.tasksync.repository.WorkflowRuleRepository;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowRuleCompiler;
+import com.tasksync.workflow.WorkflowRuleMetrics;
+import com.tasksync.workflow.WorkflowRuleRegistry;
+import com.tasksync.workflow.WorkflowUnitOfWork;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WorkflowEngine#handleEvent} against in-memory rules, compared with the v1 path
+ * that re-parsed every rule's JSON per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowEngineBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int ruleCount;
+
+    @Param({"NONE", "STATUS", "STATUS_PRIORITY"})
+    public BenchmarkFixtures.ConditionShape conditions;
+
+    @Param({"NOTIFY"})
+    public BenchmarkFixtures.ActionMix actions;
+
+    private WorkflowEngine engine;
+    private WorkflowRuleCompiler compiler;
+    private WorkflowActionExecutor executor;
+    private List<WorkflowRule> rules;
+    private WorkflowContext context;
+
+    @Setup
+    public void setUp() {
+
+        rules = BenchmarkFixtures.rules(ruleCount, conditions, actions);
+        compiler = new WorkflowRuleCompiler();
+        executor = BenchmarkFixtures.executor(compiler);
+
+        WorkflowRuleRepository ruleRepository = InMemoryRepositories.workflowRules(rules);
+        WorkflowRuleRegistry registry = new WorkflowRuleRegistry(ruleRepository, compiler);
+        registry.reload();
+
+        SimpleMeterRegistry meterRegistry = BenchmarkFixtures.meterRegistry();
+        WorkflowRuleMetrics ruleMetrics = new WorkflowRuleMetrics(meterRegistry, ruleRepository, registry);
+
+        WorkflowTimerService timerService = new WorkflowTimerService(
+                InMemoryRepositories.workflowTimers(),
+                InMemoryRepositories.tasks(),
+                registry,
+                executor,
+                meterRegistry
+        );
+
+        engine = new WorkflowEngine(registry, executor, ruleMetrics, timerService, meterRegistry);
+        engine.registerMetrics();
+
+        Task task = BenchmarkFixtures.task();
+        context = WorkflowContext.forStatusChange(task, TaskStatus.IN_PROGRESS, TaskStatus.DONE);
+    }
+
+    // ========================= PRECOMPILED (REGISTRY + INDEX) =========================
+    @Benchmark
+    public void precompiled() {
+        engine.handleEvent(context);
+    }
+
+    // ========================= V1: PARSE JSON PER EVENT =========================
+    // Flushes once per event like the engine, so only the parsing differs
+    @Benchmark
+    public void jsonParse(Blackhole bh) {
+
+        WorkflowUnitOfWork unitOfWork = new WorkflowUnitOfWork();
+
+        for (WorkflowRule rule : rules) {
+            boolean matches = compiler.compileConditions(rule.getConditionsJson()).matches(context);
+            bh.consume(matches);
+
+            if (matches) {
+                executor.execute(compiler.compileActions(rule.getActionsJson()), context, unitOfWork);
+            }
+        }
+
+        if (!unitOfWork.isEmpty()) {
+            executor.flush(unitOfWork);
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.tasksync.controller;
 
+import com.tasksync.dto.NotificationFeedDTO;
+import com.tasksync.dto.NotificationReplayDTO;
 import com.tasksync.dto.NotificationResponseDTO;
+import com.tasksync.security.CustomUserDetails;
 import com.tasksync.service.NotificationService;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/notifications")
 @RequiredArgsConstructor
@@ -30,10 +37,33 @@ public class NotificationController {
         );
     }
 
+    // ========================= FETCH MY NOTIFICATIONS (CURSOR) =========================
+    // Deep scrolling stays fast: seeks on the last seen item, no COUNT
+    @GetMapping("/feed")
+    public NotificationFeedDTO getMyNotificationFeed(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal CustomUserDetails principal
+    ) {
+        return notificationService.getMyNotificationFeed(principal.getUser().getId(), before, limit);
+    }
+
+    // ========================= REPLAY AFTER RECONNECT =========================
+    // ?after=<last seq seen>&since=<createdAt of that frame>; returns only the gap when still buffered
+    @GetMapping("/replay")
+    public NotificationReplayDTO replay(
+            @RequestParam long after,
+            @RequestParam(required = false) Instant since,
+            @RequestParam(defaultValue = "100") int limit,
+            @AuthenticationPrincipal CustomUserDetails principal
+    ) {
+        return notificationService.replay(principal.getUser().getId(), principal.getUsername(), after, since, limit);
+    }
+
     // ========================= UNREAD COUNT =========================
     @GetMapping("/unread-count")
-    public long getUnreadCount(Authentication auth) {
-        return notificationService.getUnreadCount(auth.getName());
+    public long getUnreadCount(@AuthenticationPrincipal CustomUserDetails principal) {
+        return notificationService.getUnreadCount(principal.getUser().getId(), principal.getUsername());
     }
 
     // ========================= MARK ONE AS READ =========================
@@ -47,7 +77,27 @@ public class NotificationController {
 
     // ========================= MARK ALL AS READ =========================
     @PutMapping("/read-all")
-    public void markAllAsRead(Authentication auth) {
-        notificationService.markAllAsRead(auth.getName());
+    public int markAllAsRead(Authentication auth) {
+        return notificationService.markAllAsRead(auth.getName());
+    }
+
+    // ========================= MARK SELECTED AS READ =========================
+    @PutMapping("/read")
+    public int markSelectedAsRead(
+            @RequestBody List<Long> ids,
+            Authentication auth
+    ) {
+        return notificationService.markAsRead(ids, auth.getName());
+    }
+
+    // ========================= MARK READ UP TO =========================
+    // ?id=<last seen id> or ?until=<ISO instant>, both inclusive
+    @PutMapping("/read-up-to")
+    public int markReadUpTo(
+            @RequestParam(required = false) Long id,
+            @RequestParam(required = false) Instant until,
+            Authentication auth
+    ) {
+        return notificationService.markReadUpTo(id, until, auth.getName());
     }
 }
@@ -3,6 +3,7 @@ package com.tasksync.controller;
 import com.tasksync.dto.CreateProjectRequest;
 import com.tasksync.dto.ProjectActivityDTO;
 import com.tasksync.dto.ProjectResponseDTO;
+import com.tasksync.dto.SlaAtRiskDTO;
 import com.tasksync.dto.UpdateProjectRequest;
 import com.tasksync.service.ProjectService;
 import lombok.RequiredArgsConstructor;
@@ -132,6 +133,19 @@ public class ProjectController {
         return projectService.getProjectActivities(id, auth.getName(), role);
     }
 
+    // ========================= SLA AT RISK =========================
+    @GetMapping("/{id}/sla/at-risk")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_MANAGER')")
+    public SlaAtRiskDTO getSlaAtRisk(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "24") int withinHours,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication auth
+    ) {
+        String role = auth.getAuthorities().iterator().next().getAuthority();
+        return projectService.getSlaAtRisk(id, withinHours, size, auth.getName(), role);
+    }
+
     // ========================= TRASH =========================
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -0,0 +1,59 @@
+package com.tasksync.controller;
+
+import com.tasksync.dto.SlaCalendarDTO;
+import com.tasksync.dto.SlaCalendarRequest;
+import com.tasksync.service.SlaCalendarService;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sla/calendars")
+@RequiredArgsConstructor
+public class SlaCalendarController {
+
+    private final SlaCalendarService slaCalendarService;
+
+    // ========================= CREATE =========================
+    @PostMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public SlaCalendarDTO createCalendar(@RequestBody SlaCalendarRequest request) {
+        return slaCalendarService.createCalendar(request);
+    }
+
+    // ========================= UPDATE =========================
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public SlaCalendarDTO updateCalendar(
+            @PathVariable Long id,
+            @RequestBody SlaCalendarRequest request
+    ) {
+        return slaCalendarService.updateCalendar(id, request);
+    }
+
+    // ========================= LIST =========================
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_MANAGER')")
+    public List<SlaCalendarDTO> getCalendars() {
+        return slaCalendarService.getCalendars();
+    }
+
+    // ========================= PROJECT ASSIGNMENT =========================
+    @PutMapping("/{id}/assign/{projectId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public String assignCalendar(
+            @PathVariable Long id,
+            @PathVariable Long projectId
+    ) {
+        return slaCalendarService.assignCalendar(projectId, id);
+    }
+
+    @PutMapping("/unassign/{projectId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public String unassignCalendar(@PathVariable Long projectId) {
+        return slaCalendarService.assignCalendar(projectId, null);
+    }
+}
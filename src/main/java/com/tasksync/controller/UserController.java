@@ -3,6 +3,7 @@ package com.tasksync.controller;
 import com.tasksync.dto.CreateUserRequest;
 import com.tasksync.dto.UpdateUserRequest;
 import com.tasksync.dto.UserResponseDTO;
+import com.tasksync.entity.NotificationDeliveryMode;
 import com.tasksync.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -40,6 +41,14 @@ public class UserController {
         return userService.changePassword(auth.getName(), newPassword);
     }
 
+    // ---------- NOTIFICATION DELIVERY MODE ----------
+    // IMMEDIATE pushes every notification; DIGEST sends a periodic summary instead
+    @PutMapping("/me/notification-mode")
+    public String setNotificationMode(Authentication auth,
+                                      @RequestParam NotificationDeliveryMode mode) {
+        return userService.setNotificationMode(auth.getName(), mode);
+    }
+
     // ---------- UPDATE USER ROLES (ADMIN ONLY) ----------
     @PutMapping("/{id}/role")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
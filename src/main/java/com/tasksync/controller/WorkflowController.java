@@ -0,0 +1,91 @@
+package com.tasksync.controller;
+
+import com.tasksync.dto.WorkflowReplayResultDTO;
+import com.tasksync.dto.WorkflowRuleIndexDTO;
+import com.tasksync.dto.WorkflowRuleMetricsDTO;
+import com.tasksync.dto.WorkflowShadowRuleDTO;
+import com.tasksync.dto.WorkflowSimulationResultDTO;
+import com.tasksync.dto.WorkflowRulesStatusDTO;
+import com.tasksync.service.WorkflowEngine;
+import com.tasksync.service.WorkflowOutboxService;
+import com.tasksync.service.WorkflowSimulationService;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/workflow")
+@RequiredArgsConstructor
+public class WorkflowController {
+
+    private final WorkflowEngine workflowEngine;
+    private final WorkflowOutboxService workflowOutboxService;
+    private final WorkflowSimulationService workflowSimulationService;
+
+    // ========================= RULE REGISTRY STATUS =========================
+    @GetMapping("/rules/status")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public WorkflowRulesStatusDTO getRulesStatus() {
+        return workflowEngine.getRulesStatus();
+    }
+
+    // ========================= RELOAD RULES =========================
+    @PostMapping("/rules/reload")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public WorkflowRulesStatusDTO reloadRules() {
+        return workflowEngine.reloadRules();
+    }
+
+    // ========================= RULE INDEX DEBUG =========================
+    @GetMapping("/rules/index")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<WorkflowRuleIndexDTO> getRuleIndexStats() {
+        return workflowEngine.getRuleIndexStats();
+    }
+
+    // ========================= PER-RULE METRICS =========================
+    @GetMapping("/rules/metrics")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<WorkflowRuleMetricsDTO> getRuleMetrics() {
+        return workflowEngine.getRuleMetrics();
+    }
+
+    // ========================= SHADOW EVALUATION =========================
+    @GetMapping("/rules/shadow")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<WorkflowShadowRuleDTO> getShadowRules() {
+        return workflowEngine.getShadowRules();
+    }
+
+    // ========================= RULE SIMULATION =========================
+    @PostMapping("/rules/{ruleId}/simulate")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public WorkflowSimulationResultDTO simulateRule(
+            @PathVariable Long ruleId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Simulation range is empty: 'from' must be before 'to'");
+        }
+        return workflowSimulationService.simulate(ruleId, from, to);
+    }
+
+    // ========================= OUTBOX REPLAY =========================
+    @PostMapping("/outbox/replay")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public WorkflowReplayResultDTO replayOutbox(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Replay range is empty: 'from' must be before 'to'");
+        }
+        return workflowOutboxService.replay(from, to);
+    }
+}
@@ -0,0 +1,196 @@
+package com.tasksync.dispatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded in-process work queue split into lanes, each drained by one virtual thread.
+ * <p>
+ * Items submitted with the same ordering key always land in the same lane and are
+ * therefore handled in submission order. What happens when a lane is full is decided
+ * by the {@link OverflowPolicy}.
+ * <p>
+ * {@link #close()} stops new items from being queued and lets the workers drain what
+ * is already queued, up to a bounded wait. Items submitted after that run on the
+ * caller's thread.
+ */
+@Slf4j
+public class BoundedLaneDispatcher<T> implements AutoCloseable {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String name;
+    private final OverflowPolicy overflowPolicy;
+    private final Consumer<T> handler;
+
+    private final List<BlockingQueue<Envelope<T>>> lanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter callerRuns;
+    private final Counter failed;
+    private final Timer lag;
+    private final Timer handleTime;
+
+    private volatile boolean running = true;
+
+    public BoundedLaneDispatcher(
+            String name,
+            int laneCount,
+            int capacityPerLane,
+            OverflowPolicy overflowPolicy,
+            Consumer<T> handler,
+            MeterRegistry meterRegistry
+    ) {
+
+        if (laneCount < 1 || capacityPerLane < 1) {
+            throw new IllegalArgumentException("Lane count and capacity must be positive");
+        }
+
+        this.name = name;
+        this.overflowPolicy = overflowPolicy;
+        this.handler = handler;
+
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayBlockingQueue<>(capacityPerLane));
+        }
+
+        this.published = meterRegistry.counter(name + ".published");
+        this.dropped = meterRegistry.counter(name + ".dropped");
+        this.callerRuns = meterRegistry.counter(name + ".caller.runs");
+        this.failed = meterRegistry.counter(name + ".failed");
+        this.lag = meterRegistry.timer(name + ".lag");
+        this.handleTime = meterRegistry.timer(name + ".handle");
+
+        Gauge.builder(name + ".queue.depth", this, BoundedLaneDispatcher::depth)
+                .register(meterRegistry);
+
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Envelope<T>> lane = lanes.get(i);
+            workers.add(Thread.ofVirtual()
+                    .name(name + "-lane-" + i)
+                    .start(() -> drain(lane)));
+        }
+    }
+
+    // ========================= SUBMIT =========================
+    public void submit(Object orderingKey, T item) {
+
+        if (!running) {
+            callerRuns.increment();
+            handle(new Envelope<>(item, System.nanoTime()));
+            return;
+        }
+
+        BlockingQueue<Envelope<T>> lane = lanes.get(Math.floorMod(orderingKey.hashCode(), lanes.size()));
+        Envelope<T> envelope = new Envelope<>(item, System.nanoTime());
+
+        published.increment();
+
+        if (lane.offer(envelope)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+
+            case BLOCK -> {
+                try {
+                    lane.put(envelope);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+
+            case DROP_OLDEST -> {
+                while (!lane.offer(envelope)) {
+                    if (lane.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+
+            case CALLER_RUNS -> {
+                callerRuns.increment();
+                handle(envelope);
+            }
+        }
+    }
+
+    public int depth() {
+        return lanes.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    // ========================= WORKERS =========================
+    // Keeps going after close() until its lane is empty
+    private void drain(BlockingQueue<Envelope<T>> lane) {
+
+        while (running || !lane.isEmpty()) {
+            try {
+                Envelope<T> envelope = lane.poll(1, TimeUnit.SECONDS);
+                if (envelope != null) {
+                    handle(envelope);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void handle(Envelope<T> envelope) {
+
+        long start = System.nanoTime();
+        lag.record(start - envelope.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+
+        try {
+            handler.accept(envelope.item());
+        } catch (Exception e) {
+            failed.increment();
+            log.error("{} handler failed: {}", name, e.getMessage(), e);
+        } finally {
+            handleTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+
+        running = false;
+
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+
+        try {
+            for (Thread worker : workers) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0 || !worker.join(Duration.ofNanos(left))) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        workers.forEach(Thread::interrupt);
+
+        int pending = depth();
+        if (pending > 0) {
+            log.warn("{} stopped with {} undelivered item(s)", name, pending);
+        }
+    }
+
+    private record Envelope<T>(T item, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,330 @@
+package com.tasksync.dispatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * In-memory hierarchical timing wheel for large numbers of one-shot timers.
+ * <p>
+ * Six levels of 64 slots each. Level {@code n} slots are {@code 64^n} ticks wide, so
+ * with a one second tick the wheel spans far beyond any realistic deadline. Insert
+ * and cancel are O(1): a timer is appended to, or unlinked from, the doubly-linked
+ * list of one slot. A single virtual thread advances the wheel once per tick. When a
+ * lower level wraps, the matching slot of the level above is cascaded down. Expired
+ * timers are handed to the handler on that thread, so the handler must not block.
+ * <p>
+ * Deadlines in the past fire on the next tick. Timers are not persistent; owners
+ * rebuild them on startup.
+ */
+@Slf4j
+public class HierarchicalTimingWheel<T> implements AutoCloseable {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private final String name;
+    private final long tickMillis;
+    private final Consumer<T> handler;
+
+    private final Slot<T>[][] wheel;
+    private final Object lock = new Object();
+
+    private final Counter scheduled;
+    private final Counter expired;
+    private final Counter cancelled;
+
+    private long currentTick;
+    private int size;
+
+    private final Thread driver;
+    private volatile boolean running = true;
+
+    public HierarchicalTimingWheel(
+            String name,
+            long tickMillis,
+            Consumer<T> handler,
+            MeterRegistry meterRegistry
+    ) {
+        this(name, tickMillis, handler, meterRegistry, System.currentTimeMillis() / tickMillis, true);
+    }
+
+    // Without a driver the wheel only moves when advanceTo is called; tests step it tick by tick
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(
+            String name,
+            long tickMillis,
+            Consumer<T> handler,
+            MeterRegistry meterRegistry,
+            long startTick,
+            boolean startDriver
+    ) {
+
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms");
+        }
+
+        this.name = name;
+        this.tickMillis = tickMillis;
+        this.handler = handler;
+        this.currentTick = startTick;
+
+        this.wheel = new Slot[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[level][i] = new Slot<>();
+            }
+        }
+
+        this.scheduled = meterRegistry.counter(name + ".scheduled");
+        this.expired = meterRegistry.counter(name + ".expired");
+        this.cancelled = meterRegistry.counter(name + ".cancelled");
+
+        Gauge.builder(name + ".pending", this, HierarchicalTimingWheel::size)
+                .register(meterRegistry);
+
+        this.driver = startDriver
+                ? Thread.ofVirtual().name(name + "-wheel").start(this::run)
+                : null;
+    }
+
+    // ========================= SCHEDULE / CANCEL =========================
+    public Timeout<T> schedule(T payload, Instant deadline) {
+
+        // Round up so a timer never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadline.toEpochMilli() + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineTick);
+
+        synchronized (lock) {
+            place(timeout);
+            size++;
+        }
+
+        scheduled.increment();
+        return timeout;
+    }
+
+    private boolean cancel(Timeout<T> timeout) {
+
+        synchronized (lock) {
+            if (timeout.slot == null) {
+                return false; // already fired or cancelled
+            }
+            timeout.slot.unlink(timeout);
+            size--;
+        }
+
+        cancelled.increment();
+        return true;
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    // Caller holds the lock
+    private void place(Timeout<T> timeout) {
+
+        long delta = timeout.deadlineTick - currentTick;
+
+        if (delta <= 0) {
+            timeout.level = 0;
+            wheel[0][(int) ((currentTick + 1) & SLOT_MASK)].append(timeout);
+            return;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+
+        int index = (int) ((timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timeout.level = level;
+        wheel[level][index].append(timeout);
+    }
+
+    // ========================= DRIVER =========================
+    private void run() {
+
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            }
+
+            advanceTo(System.currentTimeMillis() / tickMillis);
+        }
+    }
+
+    // Catch up tick by tick after a pause so cascades stay correct
+    void advanceTo(long nowTick) {
+
+        while (running && currentTickUnlocked() < nowTick) {
+            List<T> due = advance();
+            for (T payload : due) {
+                try {
+                    handler.accept(payload);
+                } catch (Exception e) {
+                    log.error("{} timer handler failed: {}", name, e.getMessage());
+                }
+            }
+            expired.increment(due.size());
+        }
+    }
+
+    private long currentTickUnlocked() {
+        synchronized (lock) {
+            return currentTick;
+        }
+    }
+
+    private List<T> advance() {
+
+        List<T> due = new ArrayList<>();
+
+        synchronized (lock) {
+
+            currentTick++;
+
+            // Cascade higher levels whose window starts at this tick
+            for (int level = 1; level < LEVELS; level++) {
+
+                long mask = (1L << (SLOT_BITS * level)) - 1;
+                if ((currentTick & mask) != 0) {
+                    break;
+                }
+
+                int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                for (Timeout<T> t : wheel[level][index].drain()) {
+                    if (t.deadlineTick <= currentTick) {
+                        size--;
+                        due.add(t.payload);
+                    } else {
+                        place(t);
+                    }
+                }
+            }
+
+            for (Timeout<T> t : wheel[0][(int) (currentTick & SLOT_MASK)].drain()) {
+                if (t.deadlineTick <= currentTick) {
+                    size--;
+                    due.add(t.payload);
+                } else {
+                    place(t); // clamped beyond the top level, goes round again
+                }
+            }
+        }
+
+        return due;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (driver != null) {
+            driver.interrupt();
+        }
+    }
+
+    // ========================= TIMEOUT HANDLE =========================
+    public static final class Timeout<T> {
+
+        private final HierarchicalTimingWheel<T> owner;
+        private final T payload;
+        private final long deadlineTick;
+
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private int level;
+
+        private Timeout(HierarchicalTimingWheel<T> owner, T payload, long deadlineTick) {
+            this.owner = owner;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        // false if the timer already fired or was cancelled
+        public boolean cancel() {
+            return owner.cancel(this);
+        }
+
+        // Level of the slot the timer waits in, as of the last placement
+        int level() {
+            synchronized (owner.lock) {
+                return level;
+            }
+        }
+    }
+
+    // Intrusive doubly-linked list; guarded by the wheel lock
+    private static final class Slot<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void append(Timeout<T> t) {
+            t.slot = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void unlink(Timeout<T> t) {
+            if (t.prev == null) {
+                head = t.next;
+            } else {
+                t.prev.next = t.next;
+            }
+            if (t.next == null) {
+                tail = t.prev;
+            } else {
+                t.next.prev = t.prev;
+            }
+            t.slot = null;
+            t.prev = null;
+            t.next = null;
+        }
+
+        List<Timeout<T>> drain() {
+
+            List<Timeout<T>> all = new ArrayList<>();
+            Timeout<T> t = head;
+
+            while (t != null) {
+                Timeout<T> next = t.next;
+                t.slot = null;
+                t.prev = null;
+                t.next = null;
+                all.add(t);
+                t = next;
+            }
+
+            head = null;
+            tail = null;
+            return all;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tasksync.dispatch;
+
+public enum OverflowPolicy {
+
+    // Publisher waits until the lane has room
+    BLOCK,
+
+    // Oldest queued item is discarded to make room
+    DROP_OLDEST,
+
+    // Publisher handles the item itself (lane ordering is not guaranteed for it)
+    CALLER_RUNS
+}
@@ -0,0 +1,23 @@
+package com.tasksync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class NotificationDigestDTO {
+
+    // Unread activity in (since, until]
+    private Instant since;
+    private Instant until;
+
+    private long notifications;
+    private long events;
+
+    private List<NotificationDigestItemDTO> items;
+}
@@ -0,0 +1,22 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class NotificationDigestItemDTO {
+
+    private NotificationType type;
+    private Long projectId;
+
+    private long notifications;
+    private long events;
+
+    private Instant latestAt;
+}
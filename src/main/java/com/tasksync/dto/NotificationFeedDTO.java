@@ -0,0 +1,18 @@
+package com.tasksync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class NotificationFeedDTO {
+
+    private List<NotificationResponseDTO> items;
+
+    // Pass back as ?before= for the next page; null when there is none
+    private String nextCursor;
+}
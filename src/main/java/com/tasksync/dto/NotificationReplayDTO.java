@@ -0,0 +1,24 @@
+package com.tasksync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class NotificationReplayDTO {
+
+    // True: exactly the missed frames. False: read from storage (seq 0), the gap was no longer buffered
+    private boolean fromBuffer;
+
+    // Continue from here; frames numbered above it arrive live
+    private long latestSeq;
+
+    // Storage replay hit the limit; reload the feed for anything older
+    private boolean truncated;
+
+    private List<WsNotificationDTO> items;
+}
@@ -19,4 +19,8 @@ public class NotificationResponseDTO {
 
     private boolean read;
     private Instant createdAt;
+
+    // Events merged into this notification and when the latest one happened
+    private int count;
+    private Instant lastOccurredAt;
 }
@@ -0,0 +1,30 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.TaskPriority;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SlaAtRiskDTO {
+
+    private Long projectId;
+
+    // ---- Window: deadlines in [from, to) ----
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // ---- Counts ----
+    private long total;
+    private Map<String, Long> byAssignee;       // "unassigned" for tasks with no assignee
+    private Map<TaskPriority, Long> byPriority;
+
+    // ---- Soonest deadlines first ----
+    private List<SlaAtRiskTaskDTO> tasks;
+}
@@ -0,0 +1,26 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.TaskPriority;
+import com.tasksync.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SlaAtRiskTaskDTO {
+
+    private Long id;
+    private String title;
+
+    private TaskStatus status;
+    private TaskPriority priority;
+
+    private String assignee;   // username, null when unassigned
+
+    private LocalDateTime slaDeadline;
+    private long minutesLeft;
+}
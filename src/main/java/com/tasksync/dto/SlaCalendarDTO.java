@@ -0,0 +1,27 @@
+package com.tasksync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SlaCalendarDTO {
+
+    private Long id;
+    private String name;
+    private String zoneId;
+
+    private List<DayOfWeek> workingDays;
+    private LocalTime workStart;
+    private LocalTime workEnd;
+    private List<LocalDate> holidays;
+
+    private long version;
+}
@@ -0,0 +1,20 @@
+package com.tasksync.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Getter
+@Setter
+public class SlaCalendarRequest {
+    private String name;
+    private String zoneId;              // e.g. "Europe/Berlin"
+    private Set<DayOfWeek> workingDays;
+    private LocalTime workStart;
+    private LocalTime workEnd;          // same day, after workStart
+    private Set<LocalDate> holidays;    // Optional
+}
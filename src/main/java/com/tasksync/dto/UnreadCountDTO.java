@@ -0,0 +1,13 @@
+package com.tasksync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UnreadCountDTO {
+
+    private long unread;
+}
@@ -0,0 +1,20 @@
+package com.tasksync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkflowReplayResultDTO {
+
+    private Instant from;
+    private Instant to;
+
+    private long eventsReplayed;
+    private long eventsFailed;
+    private long durationMs;
+}
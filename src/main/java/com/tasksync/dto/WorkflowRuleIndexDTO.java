@@ -0,0 +1,32 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.WorkflowEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkflowRuleIndexDTO {
+
+    private WorkflowEventType eventType;
+
+    // ---- Index shape ----
+    private int rules;
+    private int unindexedRules;
+    private Map<String, Integer> discriminators;   // condition key -> distinct values
+
+    // ---- Runtime counters since startup ----
+    private long eventsHandled;
+    private long rulesEvaluated;
+    private long rulesMatched;
+    private double avgRulesEvaluatedPerEvent;
+
+    // ---- Unit-of-work flush counters ----
+    private long taskWritesRequested;   // saves the actions asked for
+    private long taskWritesFlushed;     // rows actually saved after coalescing
+    private long notificationsCreated;
+}
@@ -0,0 +1,33 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.WorkflowEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkflowRuleMetricsDTO {
+
+    private Long ruleId;
+    private WorkflowEventType eventType;
+
+    // ---- Counters ----
+    private long evaluations;
+    private long matches;
+    private long actionExecutions;
+    private long failures;
+
+    // ---- Latency ----
+    private double avgConditionMicros;
+    private double avgActionMicros;
+    private double maxActionMicros;
+
+    // ---- Budget ----
+    private boolean slow;
+    private boolean autoDisabled;
+    private Instant flaggedAt;
+}
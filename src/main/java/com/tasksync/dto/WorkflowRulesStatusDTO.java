@@ -0,0 +1,23 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.WorkflowEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkflowRulesStatusDTO {
+
+    private long version;
+    private String sourceFingerprint;
+    private Instant loadedAt;
+
+    private int ruleCount;
+    private int skippedRules;
+    private Map<WorkflowEventType, Integer> rulesPerEvent;
+}
@@ -0,0 +1,24 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.WorkflowEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkflowShadowRuleDTO {
+
+    private Long ruleId;
+    private WorkflowEventType eventType;
+
+    private long evaluations;
+    private long hypotheticalMatches;
+    private long hypotheticalNotifications;
+    private long hypotheticalTaskWrites;
+
+    private Instant since;
+}
@@ -0,0 +1,34 @@
+package com.tasksync.dto;
+
+import com.tasksync.entity.WorkflowEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkflowSimulationResultDTO {
+
+    private Long ruleId;
+    private WorkflowEventType eventType;
+    private Instant from;
+    private Instant to;
+
+    // ---- Volume ----
+    private long activitiesScanned;
+    private long eventsEvaluated;
+    private long matches;
+
+    // ---- Hypothetical cost ----
+    private long expectedNotifications;
+    private long expectedTaskWrites;
+    private Map<LocalDate, Long> notificationsPerDay;   // UTC days, only days with notifications
+    private double avgNotificationsPerDay;
+
+    private long durationMs;
+}
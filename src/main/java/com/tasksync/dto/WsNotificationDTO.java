@@ -12,6 +12,9 @@ import java.time.Instant;
 @AllArgsConstructor
 public class WsNotificationDTO {
 
+    // Stored notification this frame shows; a merged frame reuses the id of the first
+    private Long id;
+
     private NotificationType type;
     private String message;
 
@@ -19,4 +22,10 @@ public class WsNotificationDTO {
     private Long taskId;
 
     private Instant createdAt;
+
+    // Events merged into this notification; a later frame with the same id and a higher count replaces the earlier one
+    private int count;
+
+    // Per-user frame number, +1 per frame; a jump means frames were missed. 0 for frames served from storage
+    private long seq;
 }
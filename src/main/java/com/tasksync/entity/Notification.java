@@ -2,11 +2,20 @@ package com.tasksync.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "notifications")
+@Table(
+        name = "notifications",
+        indexes = {
+                // Unread count and bulk mark-read per user
+                @Index(name = "idx_notification_recipient_read", columnList = "recipient_id, is_read"),
+                // Keyset feed, newest first
+                @Index(name = "idx_notification_recipient_created", columnList = "recipient_id, createdAt, id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,4 +46,12 @@ public class Notification {
 
     @Column(updatable = false)
     private Instant createdAt = Instant.now();
+
+    // Events merged into this row by the coalescing window (1 = not merged)
+    @ColumnDefault("1")
+    @Column(name = "merged_count", nullable = false)
+    private int count = 1;
+
+    // Latest merged event; createdAt stays the first, so the row keeps its feed position
+    private Instant lastOccurredAt;
 }
\ No newline at end of file
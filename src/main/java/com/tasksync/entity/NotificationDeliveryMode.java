@@ -0,0 +1,7 @@
+package com.tasksync.entity;
+
+public enum NotificationDeliveryMode {
+
+    IMMEDIATE,  // every notification is pushed as it happens
+    DIGEST      // stored as usual, pushed as a periodic summary
+}
@@ -0,0 +1,7 @@
+package com.tasksync.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -38,6 +38,11 @@ public class Project {
     )
     private Set<User> members = new HashSet<>();
 
+    // ---------------- SLA Calendar (null = round the clock) ----------------
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sla_calendar_id")
+    private SlaCalendar slaCalendar;
+
     // ---------------- Project State ----------------
     private boolean archived = false;   // inactive but visible
     private boolean deleted = false;    // soft deleted (trash)
@@ -0,0 +1,54 @@
+package com.tasksync.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "scheduler_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SchedulerLease implements Persistable<String> {
+
+    // e.g. "sla:partition:3", "sla:node:<node id>", "sla:single"
+    @Id
+    @Column(length = 150)
+    private String name;
+
+    // Node currently holding the lease (null = free)
+    private String owner;
+
+    @Column(nullable = false)
+    private Instant expiresAt = Instant.EPOCH;
+
+    // New rows are always inserted, never merged over a row another node created
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    public SchedulerLease(String name, String owner, Instant expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tasksync.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Business hours an SLA clock runs in: working days, one daily window and
+ * holidays, read in {@code zoneId}. Every change bumps {@code version}, which
+ * invalidates the compiled working-time table.
+ */
+@Entity
+@Table(name = "sla_calendars")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaCalendar {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Column(nullable = false)
+    private String zoneId = "UTC";
+
+    // ---------------- Working time ----------------
+    // Collections are loaded only when the calendar is compiled
+    @ElementCollection
+    @CollectionTable(name = "sla_calendar_days", joinColumns = @JoinColumn(name = "calendar_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    private Set<DayOfWeek> workingDays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+    @Column(nullable = false)
+    private LocalTime workStart = LocalTime.of(9, 0);
+
+    @Column(nullable = false)
+    private LocalTime workEnd = LocalTime.of(17, 0);
+
+    @ElementCollection
+    @CollectionTable(name = "sla_calendar_holidays", joinColumns = @JoinColumn(name = "calendar_id"))
+    @Column(name = "holiday")
+    private Set<LocalDate> holidays = new HashSet<>();
+
+    // ---------------- Versioning ----------------
+    @Version
+    private long version;
+
+    private Instant updatedAt = Instant.now();
+}
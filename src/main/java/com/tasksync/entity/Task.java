@@ -8,7 +8,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(
+        name = "tasks",
+        indexes = {
+                // SLA at-risk range per project
+                @Index(name = "idx_task_project_sla_deadline", columnList = "project_id, slaDeadline")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,4 +39,15 @@ public class User {
     private Instant updatedAt = Instant.now();
 
     private boolean active = true; // for soft deactivation
+
+    // Null on rows created before the setting existed, read as IMMEDIATE
+    @Enumerated(EnumType.STRING)
+    private NotificationDeliveryMode notificationMode = NotificationDeliveryMode.IMMEDIATE;
+
+    // Upper bound of the last digest sent (DIGEST mode only)
+    private Instant lastDigestAt;
+
+    public boolean prefersDigest() {
+        return notificationMode == NotificationDeliveryMode.DIGEST;
+    }
 }
@@ -0,0 +1,71 @@
+package com.tasksync.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(
+        name = "workflow_outbox",
+        indexes = {
+                @Index(name = "idx_outbox_status_id", columnList = "status, id"),
+                @Index(name = "idx_outbox_created_at", columnList = "createdAt")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ---------------- EVENT ----------------
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WorkflowEventType eventType;
+
+    private Long taskId;
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    private TaskStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    private TaskStatus toStatus;
+
+    // ---------------- FACTS AT EVENT TIME (what conditions test) ----------------
+    @Enumerated(EnumType.STRING)
+    private TaskStatus taskStatus;
+
+    @Enumerated(EnumType.STRING)
+    private TaskPriority priority;
+
+    private Long assigneeId;
+
+    private boolean hasSla;
+    private boolean slaBreached;
+    private boolean escalated;
+
+    // ---------------- DELIVERY ----------------
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // ---------------- TIMESTAMPS ----------------
+    @Column(updatable = false)
+    private Instant createdAt = Instant.now();
+
+    private Instant processedAt;
+}
@@ -38,4 +38,14 @@ public class WorkflowRule {
     private Instant createdAt = Instant.now();
 
     private Instant updatedAt = Instant.now();
+
+    // ---------------- Versioning ----------------
+    // Both feed the registry fingerprint, so any save is seen by every node
+    @Version
+    private long version;
+
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
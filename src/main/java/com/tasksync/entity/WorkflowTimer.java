@@ -0,0 +1,41 @@
+package com.tasksync.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(
+        name = "workflow_timers",
+        indexes = {
+                @Index(name = "idx_workflow_timer_task", columnList = "taskId")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowTimer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Rule whose delayed actions run when the timer fires
+    @Column(nullable = false)
+    private Long ruleId;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Instant dueAt;
+
+    // Only fire if the task is still in this status (null = any)
+    @Enumerated(EnumType.STRING)
+    private TaskStatus ifStatus;
+
+    @Column(updatable = false)
+    private Instant createdAt = Instant.now();
+}
@@ -1,15 +1,23 @@
 package com.tasksync.repository;
 
 import com.tasksync.entity.Notification;
+import com.tasksync.entity.NotificationType;
 import com.tasksync.entity.User;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationRepositoryCustom {
 
     // -------- Fetch notifications for a user (latest first) --------
     Page<Notification> findByRecipientOrderByCreatedAtDesc(
@@ -17,9 +25,166 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
             Pageable pageable
     );
 
-    // -------- Fetch unread notifications --------
-    List<Notification> findByRecipientAndReadFalse(User recipient);
+    // -------- Keyset feed: newest first, seeks on (recipient_id, created_at, id) --------
+    @Query("""
+            select n from Notification n
+            where n.recipient.id = :recipientId
+            order by n.createdAt desc, n.id desc
+            """)
+    List<Notification> findLatest(@Param("recipientId") Long recipientId, Limit limit);
+
+    @Query("""
+            select n from Notification n
+            where n.recipient.id = :recipientId
+              and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))
+            order by n.createdAt desc, n.id desc
+            """)
+    List<Notification> findOlderThan(
+            @Param("recipientId") Long recipientId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // -------- Replay fallback: rows created or merged into after a point in time, newest first --------
+    @Query("""
+            select n from Notification n
+            where n.recipient.id = :recipientId
+              and coalesce(n.lastOccurredAt, n.createdAt) > :since
+            order by coalesce(n.lastOccurredAt, n.createdAt) desc, n.id desc
+            """)
+    List<Notification> findActiveSince(
+            @Param("recipientId") Long recipientId,
+            @Param("since") Instant since,
+            Limit limit
+    );
 
     // -------- Count unread (badge count) --------
-    long countByRecipientAndReadFalse(User recipient);
+    long countByRecipientIdAndReadFalse(Long recipientId);
+
+    // -------- Unread counter reconciliation: one grouped count per batch of users --------
+    @Query("""
+            select n.recipient.id as recipientId, count(n) as unread
+            from Notification n
+            where n.read = false and n.recipient.id in :recipientIds
+            group by n.recipient.id
+            """)
+    List<UnreadCount> countUnreadByRecipientIds(@Param("recipientIds") Collection<Long> recipientIds);
+
+    interface UnreadCount {
+        Long getRecipientId();
+        long getUnread();
+    }
+
+    // -------- Coalescing: unread rows whose window (opened at createdAt) is still open --------
+    // perTask = false matches any task, for types that are about the project as a whole
+    @Query("""
+            select n.id as id, n.recipient.id as recipientId, n.count as count
+            from Notification n
+            where n.recipient.id in :recipientIds
+              and n.type = :type
+              and (n.projectId = :projectId or (:projectId is null and n.projectId is null))
+              and (:perTask = false or n.taskId = :taskId or (:taskId is null and n.taskId is null))
+              and n.read = false
+              and n.createdAt >= :since
+            """)
+    List<OpenWindow> findOpenWindows(
+            @Param("recipientIds") Collection<Long> recipientIds,
+            @Param("type") NotificationType type,
+            @Param("projectId") Long projectId,
+            @Param("perTask") boolean perTask,
+            @Param("taskId") Long taskId,
+            @Param("since") Instant since
+    );
+
+    interface OpenWindow {
+        Long getId();
+        Long getRecipientId();
+        int getCount();
+    }
+
+    // Not re-checked for read: an event landing on a row read a moment ago stays in the feed
+    @Modifying
+    @Transactional
+    @Query("""
+            update Notification n
+            set n.count = n.count + :added, n.message = :message, n.taskId = :taskId, n.lastOccurredAt = :at
+            where n.id in :ids
+            """)
+    int mergeInto(
+            @Param("ids") Collection<Long> ids,
+            @Param("added") int added,
+            @Param("message") String message,
+            @Param("taskId") Long taskId,
+            @Param("at") Instant at
+    );
+
+    // -------- Coalescing: counts after the merge UPDATE, which still holds the row locks --------
+    @Query("select n.id as id, n.count as count from Notification n where n.id in :ids")
+    List<MergedCount> findCounts(@Param("ids") Collection<Long> ids);
+
+    interface MergedCount {
+        Long getId();
+        int getCount();
+    }
+
+    // -------- Digest: unread activity per (type, project) in a time range --------
+    @Query("""
+            select n.type as type, n.projectId as projectId,
+                   count(n) as notifications, sum(n.count) as events,
+                   max(coalesce(n.lastOccurredAt, n.createdAt)) as latestAt
+            from Notification n
+            where n.recipient.id = :recipientId
+              and n.read = false
+              and coalesce(n.lastOccurredAt, n.createdAt) > :since
+              and coalesce(n.lastOccurredAt, n.createdAt) <= :until
+            group by n.type, n.projectId
+            order by count(n) desc
+            """)
+    List<DigestLine> summarizeUnread(
+            @Param("recipientId") Long recipientId,
+            @Param("since") Instant since,
+            @Param("until") Instant until
+    );
+
+    interface DigestLine {
+        NotificationType getType();
+        Long getProjectId();
+        long getNotifications();
+        long getEvents();
+        Instant getLatestAt();
+    }
+
+    // -------- Bulk read state: one UPDATE each, scoped to the recipient --------
+    @Modifying
+    @Transactional
+    @Query("""
+            update Notification n set n.read = true
+            where n.recipient = :recipient and n.read = false
+            """)
+    int markAllRead(@Param("recipient") User recipient);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update Notification n set n.read = true
+            where n.recipient = :recipient and n.read = false and n.id in :ids
+            """)
+    int markReadByIds(@Param("recipient") User recipient, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update Notification n set n.read = true
+            where n.recipient = :recipient and n.read = false and n.id <= :maxId
+            """)
+    int markReadUpToId(@Param("recipient") User recipient, @Param("maxId") Long maxId);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update Notification n set n.read = true
+            where n.recipient = :recipient and n.read = false and n.createdAt <= :until
+            """)
+    int markReadUpToTime(@Param("recipient") User recipient, @Param("until") Instant until);
 }
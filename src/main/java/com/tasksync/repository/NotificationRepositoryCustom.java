@@ -0,0 +1,11 @@
+package com.tasksync.repository;
+
+import com.tasksync.entity.Notification;
+
+import java.util.List;
+
+public interface NotificationRepositoryCustom {
+
+    // -------- Bulk insert: multi-row INSERTs, generated ids are set on the entities --------
+    int insertAll(List<Notification> notifications);
+}
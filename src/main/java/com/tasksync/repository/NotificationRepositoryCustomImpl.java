@@ -0,0 +1,82 @@
+package com.tasksync.repository;
+
+import com.tasksync.entity.Notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes notifications with one multi-row INSERT per chunk instead of one
+ * statement per row, which matters for project-wide fan-out to thousands of
+ * members. The entities are not attached to the persistence context; their ids
+ * are read back from the generated keys so pushed frames can carry them.
+ */
+@RequiredArgsConstructor
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_PREFIX =
+            "insert into notifications (recipient_id, type, message, project_id, task_id, is_read, created_at, merged_count, last_occurred_at) values ";
+
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(List<Notification> notifications) {
+
+        int inserted = 0;
+
+        for (int from = 0; from < notifications.size(); from += ROWS_PER_STATEMENT) {
+
+            List<Notification> chunk =
+                    notifications.subList(from, Math.min(from + ROWS_PER_STATEMENT, notifications.size()));
+
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW.length() + 1))
+                    .append(INSERT_PREFIX);
+            List<Object> args = new ArrayList<>(chunk.size() * 9);
+
+            for (int i = 0; i < chunk.size(); i++) {
+
+                Notification n = chunk.get(i);
+
+                sql.append(i == 0 ? "" : ",").append(ROW);
+                args.add(n.getRecipient().getId());
+                args.add(n.getType().name());
+                args.add(n.getMessage());
+                args.add(n.getProjectId());
+                args.add(n.getTaskId());
+                args.add(n.isRead());
+                args.add(Timestamp.from(n.getCreatedAt()));
+                args.add(n.getCount());
+                args.add(Timestamp.from(n.getLastOccurredAt() != null ? n.getLastOccurredAt() : n.getCreatedAt()));
+            }
+
+            KeyHolder keys = new GeneratedKeyHolder();
+
+            inserted += jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql.toString(), new String[]{"id"});
+                new ArgumentPreparedStatementSetter(args.toArray()).setValues(ps);
+                return ps;
+            }, keys);
+
+            // One key per row, in VALUES order; the column label differs per driver
+            List<Map<String, Object>> rows = keys.getKeyList();
+            for (int i = 0; i < rows.size() && i < chunk.size(); i++) {
+                chunk.get(i).setId(((Number) rows.get(i).values().iterator().next()).longValue());
+            }
+        }
+
+        return inserted;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tasksync.repository;
+
+import com.tasksync.entity.SchedulerLease;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    List<SchedulerLease> findByNameStartingWith(String prefix);
+
+    // -------- Acquire or renew: succeeds if free, expired, or already ours --------
+    @Modifying
+    @Transactional
+    @Query("""
+            update SchedulerLease l
+            set l.owner = :owner, l.expiresAt = :until
+            where l.name = :name
+              and (l.owner = :owner or l.owner is null or l.expiresAt < :now)
+            """)
+    int tryAcquire(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") Instant now,
+            @Param("until") Instant until
+    );
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update SchedulerLease l
+            set l.owner = null, l.expiresAt = :now
+            where l.name = :name and l.owner = :owner
+            """)
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Query("""
+            select count(l) from SchedulerLease l
+            where l.name like :prefix% and l.owner is not null and l.expiresAt > :now
+            """)
+    long countLive(@Param("prefix") String prefix, @Param("now") Instant now);
+}
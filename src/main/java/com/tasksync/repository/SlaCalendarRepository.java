@@ -0,0 +1,36 @@
+package com.tasksync.repository;
+
+import com.tasksync.entity.SlaCalendar;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SlaCalendarRepository extends JpaRepository<SlaCalendar, Long> {
+
+    boolean existsByName(String name);
+
+    // -------- Compile: calendar with its days and holidays in one query --------
+    @Query("""
+            select c from SlaCalendar c
+            left join fetch c.workingDays
+            left join fetch c.holidays
+            where c.id = :id
+            """)
+    Optional<SlaCalendar> findCompleteById(@Param("id") Long id);
+
+    @Query("""
+            select distinct c from SlaCalendar c
+            left join fetch c.workingDays
+            left join fetch c.holidays
+            order by c.name
+            """)
+    List<SlaCalendar> findAllComplete();
+
+    // -------- Cache check: version only --------
+    @Query("select c.version from SlaCalendar c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -2,11 +2,34 @@ package com.tasksync.repository;
 
 import com.tasksync.entity.Task;
 import com.tasksync.entity.TaskActivity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface TaskActivityRepository extends JpaRepository<TaskActivity, Long> {
 
     List<TaskActivity> findByTaskOrderByCreatedAtDesc(Task task);
+
+    // -------- Rule simulator: keyset over a time range, task graph fetched in the same query --------
+    @Query("""
+            select a from TaskActivity a
+            join fetch a.task t
+            join fetch t.project p
+            join fetch t.createdBy
+            left join fetch t.assignee
+            left join fetch p.manager
+            where a.createdAt >= :from and a.createdAt < :to
+              and a.id > :afterId
+            order by a.id
+            """)
+    List<TaskActivity> findRangeBatch(
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterId") long afterId,
+            Limit limit
+    );
 }
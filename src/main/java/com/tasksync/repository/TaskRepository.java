@@ -3,12 +3,24 @@ package com.tasksync.repository;
 import com.tasksync.entity.Project;
 import com.tasksync.entity.Task;
 import com.tasksync.entity.User;
+import com.tasksync.entity.TaskPriority;
 import com.tasksync.entity.TaskStatus;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -27,5 +39,137 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     long countByProjectAndStatus(Project project, TaskStatus status);
 
-    List<Task> findBySlaHoursNotNullAndSlaBreachedFalseAndStatusNot(TaskStatus status);
+    // -------- SLA scan: claim overdue open task ids in our project partitions after a keyset cursor,
+    //          rows held by others skipped --------
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select t.id from Task t
+            where t.slaHours is not null
+              and t.slaBreached = false
+              and t.status <> com.tasksync.entity.TaskStatus.DONE
+              and t.slaDeadline < :now
+              and mod(t.project.id, :modulus) in :partitions
+              and t.id > :afterId
+            order by t.id
+            """)
+    List<Long> lockOverdueSlaIds(
+            @Param("now") LocalDateTime now,
+            @Param("modulus") int modulus,
+            @Param("partitions") Collection<Integer> partitions,
+            @Param("afterId") long afterId,
+            Limit limit
+    );
+
+    // -------- SLA scan: task graph for a claimed chunk in one query --------
+    @Query("""
+            select t from Task t
+            join fetch t.project p
+            left join fetch p.manager
+            left join fetch t.assignee
+            join fetch t.createdBy
+            where t.id in :ids
+            order by t.id
+            """)
+    List<Task> findWithGraphByIdIn(@Param("ids") Collection<Long> ids);
+
+    // -------- SLA index rebuild: ids and deadlines in the given project partitions, no entity graph --------
+    @Query("""
+            select t.id as id, t.project.id as projectId, t.slaDeadline as slaDeadline from Task t
+            where t.slaDeadline is not null
+              and t.slaBreached = false
+              and t.status <> com.tasksync.entity.TaskStatus.DONE
+              and mod(t.project.id, :modulus) in :partitions
+              and t.id > :afterId
+            order by t.id
+            """)
+    List<OpenSlaDeadline> findOpenSlaDeadlines(
+            @Param("modulus") int modulus,
+            @Param("partitions") Collection<Integer> partitions,
+            @Param("afterId") long afterId,
+            Limit limit
+    );
+
+    interface OpenSlaDeadline {
+        Long getId();
+        Long getProjectId();
+        LocalDateTime getSlaDeadline();
+    }
+
+    // -------- SLA breach claim: only one caller flips the flag --------
+    @Modifying
+    @Query("""
+            update Task t
+            set t.slaBreached = true, t.updatedAt = :now
+            where t.id = :id and t.slaBreached = false
+            """)
+    int markSlaBreached(@Param("id") Long id, @Param("now") Instant now);
+
+    // -------- SLA breach for a whole chunk in one statement --------
+    @Modifying
+    @Query("""
+            update Task t
+            set t.slaBreached = true, t.updatedAt = :now
+            where t.id in :ids and t.slaBreached = false
+            """)
+    int markSlaBreached(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // -------- SLA at-risk: open tasks of a project whose deadline falls in [from, to) --------
+    //          all three read the (project_id, sla_deadline) index range
+    @Query("""
+            select t from Task t
+            left join fetch t.assignee
+            where t.project = :project
+              and t.slaDeadline >= :from and t.slaDeadline < :to
+              and t.slaBreached = false
+              and t.status <> com.tasksync.entity.TaskStatus.DONE
+            order by t.slaDeadline, t.id
+            """)
+    List<Task> findSlaAtRisk(
+            @Param("project") Project project,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Limit limit
+    );
+
+    @Query("""
+            select a.username as username, count(t) as tasks
+            from Task t left join t.assignee a
+            where t.project = :project
+              and t.slaDeadline >= :from and t.slaDeadline < :to
+              and t.slaBreached = false
+              and t.status <> com.tasksync.entity.TaskStatus.DONE
+            group by a.username
+            order by count(t) desc
+            """)
+    List<AssigneeRiskCount> countSlaAtRiskByAssignee(
+            @Param("project") Project project,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @Query("""
+            select t.priority as priority, count(t) as tasks
+            from Task t
+            where t.project = :project
+              and t.slaDeadline >= :from and t.slaDeadline < :to
+              and t.slaBreached = false
+              and t.status <> com.tasksync.entity.TaskStatus.DONE
+            group by t.priority
+            """)
+    List<PriorityRiskCount> countSlaAtRiskByPriority(
+            @Param("project") Project project,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    interface AssigneeRiskCount {
+        String getUsername();
+        long getTasks();
+    }
+
+    interface PriorityRiskCount {
+        TaskPriority getPriority();
+        long getTasks();
+    }
 }
@@ -1,7 +1,16 @@
 package com.tasksync.repository;
 
+import com.tasksync.entity.NotificationDeliveryMode;
 import com.tasksync.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,4 +22,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    // -------- Digest recipients whose last digest is older than the cut-off --------
+    @Query("""
+            select u.id as id, u.username as username, u.lastDigestAt as lastDigestAt
+            from User u
+            where u.active = true
+              and u.notificationMode = :mode
+              and (u.lastDigestAt is null or u.lastDigestAt <= :due)
+            order by u.id
+            """)
+    List<DigestRecipient> findDueForDigest(
+            @Param("mode") NotificationDeliveryMode mode,
+            @Param("due") Instant due,
+            Limit limit
+    );
+
+    interface DigestRecipient {
+        Long getId();
+        String getUsername();
+        Instant getLastDigestAt();
+    }
+
+    // -------- Claim one digest: only one node moves the watermark --------
+    @Modifying
+    @Transactional
+    @Query("""
+            update User u set u.lastDigestAt = :now
+            where u.id = :id and (u.lastDigestAt is null or u.lastDigestAt <= :due)
+            """)
+    int claimDigest(@Param("id") Long id, @Param("due") Instant due, @Param("now") Instant now);
 }
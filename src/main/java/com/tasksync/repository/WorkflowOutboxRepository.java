@@ -0,0 +1,92 @@
+package com.tasksync.repository;
+
+import com.tasksync.entity.OutboxStatus;
+import com.tasksync.entity.WorkflowOutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface WorkflowOutboxRepository extends JpaRepository<WorkflowOutboxEvent, Long> {
+
+    // -------- Relay: next due batch after a keyset cursor, locked rows skipped --------
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from WorkflowOutboxEvent e
+            where e.status = com.tasksync.entity.OutboxStatus.PENDING
+              and e.nextAttemptAt <= :now
+              and e.id > :afterId
+            order by e.id
+            """)
+    List<WorkflowOutboxEvent> lockDueBatch(
+            @Param("afterId") long afterId,
+            @Param("now") Instant now,
+            Limit limit
+    );
+
+    // -------- Relay: specific rows just written, if no poller claimed them first --------
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from WorkflowOutboxEvent e
+            where e.id in :ids
+              and e.status = com.tasksync.entity.OutboxStatus.PENDING
+              and e.nextAttemptAt <= :now
+            order by e.id
+            """)
+    List<WorkflowOutboxEvent> lockDueByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("now") Instant now
+    );
+
+    // -------- Relay: bulk completion --------
+    @Modifying
+    @Query("""
+            update WorkflowOutboxEvent e
+            set e.status = com.tasksync.entity.OutboxStatus.DONE, e.processedAt = :now
+            where e.id in :ids
+            """)
+    int markDone(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // -------- Relay: failed attempt, retried at nextAttemptAt or given up --------
+    @Modifying
+    @Query("""
+            update WorkflowOutboxEvent e
+            set e.attempts = :attempts, e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError
+            where e.id = :id
+            """)
+    int recordFailure(
+            @Param("id") Long id,
+            @Param("attempts") int attempts,
+            @Param("status") OutboxStatus status,
+            @Param("nextAttemptAt") Instant nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+
+    // -------- Replay: keyset over a time range --------
+    @Query("""
+            select e from WorkflowOutboxEvent e
+            where e.createdAt >= :from and e.createdAt < :to
+              and e.id > :afterId
+            order by e.id
+            """)
+    List<WorkflowOutboxEvent> findRangeBatch(
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterId") long afterId,
+            Limit limit
+    );
+
+    long countByStatus(OutboxStatus status);
+}
@@ -3,10 +3,39 @@ package com.tasksync.repository;
 import com.tasksync.entity.WorkflowEventType;
 import com.tasksync.entity.WorkflowRule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface WorkflowRuleRepository extends JpaRepository<WorkflowRule, Long> {
 
     List<WorkflowRule> findByEventTypeAndEnabledTrue(WorkflowEventType eventType);
+
+    // -------- Full load for the in-memory rule registry --------
+    List<WorkflowRule> findByEnabledTrueOrderByIdAsc();
+
+    // -------- Disabled rules, evaluated in shadow mode --------
+    List<WorkflowRule> findByEnabledFalseOrderByIdAsc();
+
+    // -------- Cheap change detection (count, max id, max updatedAt, version sum, enabled id sum) --------
+    @Query("""
+            select count(r), max(r.id), max(r.updatedAt), sum(r.version),
+                   sum(case when r.enabled = true then r.id else 0 end)
+            from WorkflowRule r
+            """)
+    List<Object[]> fingerprint();
+
+    // -------- Auto-disable of a slow rule, committed on its own (bulk update: bumps version by hand) --------
+    @Modifying
+    @Transactional
+    @Query("""
+            update WorkflowRule r
+            set r.enabled = false, r.updatedAt = :now, r.version = r.version + 1
+            where r.id = :id and r.enabled = true
+            """)
+    int disable(@Param("id") Long id, @Param("now") Instant now);
 }
@@ -0,0 +1,35 @@
+package com.tasksync.repository;
+
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.entity.WorkflowTimer;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface WorkflowTimerRepository extends JpaRepository<WorkflowTimer, Long> {
+
+    // -------- Startup rebuild: keyset over all pending timers --------
+    List<WorkflowTimer> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // -------- Claim before firing: only the node that deletes the row runs it --------
+    @Modifying
+    @Transactional
+    @Query("delete from WorkflowTimer t where t.id = :id")
+    int claim(@Param("id") Long id);
+
+    // -------- Status change: drop timers whose status guard no longer holds --------
+    @Modifying
+    @Transactional
+    @Query("""
+            delete from WorkflowTimer t
+            where t.taskId = :taskId
+              and (t.ifStatus is null or t.ifStatus <> :status)
+            """)
+    int deleteStale(@Param("taskId") Long taskId, @Param("status") TaskStatus status);
+}
@@ -0,0 +1,88 @@
+package com.tasksync.scheduler;
+
+import com.tasksync.dto.NotificationDigestDTO;
+import com.tasksync.entity.NotificationDeliveryMode;
+import com.tasksync.repository.UserRepository;
+import com.tasksync.service.NotificationService;
+import com.tasksync.service.WsNotificationSender;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sends the periodic summary to users in {@code DIGEST} mode.
+ * <p>
+ * A user is due once their last digest is older than
+ * {@code app.notifications.digest.interval-ms}. Each due user is claimed with a
+ * conditional UPDATE on {@code lastDigestAt}, so with several nodes only one
+ * sends a given digest. The digest covers unread notifications with activity
+ * since the previous watermark. Nothing is pushed when there is none, but the
+ * watermark still moves.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDigestScheduler {
+
+    private static final int BATCH = 200;
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final WsNotificationSender wsNotificationSender;
+
+    @Value("${app.notifications.digest.interval-ms:3600000}")
+    private long intervalMs;
+
+    @Scheduled(fixedDelayString = "${app.notifications.digest.check-ms:60000}")
+    public void sendDueDigests() {
+
+        Instant now = Instant.now();
+        Instant due = now.minusMillis(intervalMs);
+
+        int claimed = 0;
+        int sent = 0;
+
+        try {
+            // Claimed users stop matching, so each batch is the next set of due users
+            for (int round = 0; round < MAX_BATCHES_PER_RUN; round++) {
+
+                List<UserRepository.DigestRecipient> batch =
+                        userRepository.findDueForDigest(NotificationDeliveryMode.DIGEST, due, Limit.of(BATCH));
+
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                for (UserRepository.DigestRecipient recipient : batch) {
+
+                    if (userRepository.claimDigest(recipient.getId(), due, now) == 0) {
+                        continue; // another node got there first
+                    }
+                    claimed++;
+
+                    Instant since = recipient.getLastDigestAt() != null ? recipient.getLastDigestAt() : due;
+                    NotificationDigestDTO digest = notificationService.buildDigest(recipient.getId(), since, now);
+
+                    if (digest != null) {
+                        wsNotificationSender.sendDigest(recipient.getUsername(), digest);
+                        sent++;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Notification digest run failed: {}", e.getMessage());
+        }
+
+        if (claimed > 0) {
+            log.info("Notification digests: {} due, {} sent", claimed, sent);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.tasksync.scheduler;
+
+public enum SlaClusterMode {
+
+    // One lease for the whole scan; whichever node holds it scans everything
+    SINGLE,
+
+    // Project ids hashed into partitions, each node leases a fair share
+    PARTITIONED
+}
@@ -0,0 +1,181 @@
+package com.tasksync.scheduler;
+
+import com.tasksync.dispatch.HierarchicalTimingWheel;
+import com.tasksync.entity.Task;
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.util.AfterCommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory index of open SLA deadlines, one timer per task on a
+ * {@link HierarchicalTimingWheel}.
+ * <p>
+ * Code that changes a task's SLA calls {@link #track(Task)} and the timer is
+ * (re)armed once the transaction commits. When a deadline passes the registered
+ * handler gets the task id; it must re-check the task in the DB, since the index
+ * is only a hint. The periodic reconciliation in {@link SlaScheduler} fills gaps
+ * such as a restart or a change made on another node.
+ * <p>
+ * In a cluster the bulk load only covers the project partitions this node owns,
+ * and timers of partitions it gives up are dropped. A task changed on this node
+ * is armed here whatever its partition, so the deadline fires on time even if
+ * the owner has not seen the change. Firing twice is harmless, because the
+ * breach is a conditional UPDATE.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlaDeadlineIndex {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.sla.index.tick-ms:1000}")
+    private long tickMillis;
+
+    private final Map<Long, HierarchicalTimingWheel.Timeout<Entry>> timers = new ConcurrentHashMap<>();
+
+    private HierarchicalTimingWheel<Entry> wheel;
+    private ExecutorService firing;
+    private volatile Consumer<Long> onDue = taskId -> { };
+
+    @PostConstruct
+    void start() {
+
+        firing = Executors.newVirtualThreadPerTaskExecutor();
+
+        wheel = new HierarchicalTimingWheel<>(
+                "sla.deadlines",
+                tickMillis,
+                this::expire,
+                meterRegistry
+        );
+    }
+
+    @PreDestroy
+    void stop() {
+        if (wheel != null) {
+            wheel.close();
+        }
+        if (firing != null) {
+            firing.shutdown();
+        }
+    }
+
+    public void onDue(Consumer<Long> handler) {
+        this.onDue = handler;
+    }
+
+    // ========================= MAINTAIN =========================
+    public void track(Task task) {
+
+        Long taskId = task.getId();
+        long projectId = task.getProject() != null && task.getProject().getId() != null ? task.getProject().getId() : 0L;
+        Instant deadline = openDeadline(task);
+
+        if (taskId == null) {
+            return;
+        }
+
+        AfterCommit.run(() -> {
+            if (deadline == null) {
+                untrack(taskId);
+            } else {
+                schedule(taskId, projectId, deadline);
+            }
+        });
+    }
+
+    // Bulk rebuild from an id/deadline projection, outside any transaction
+    public void track(Long taskId, long projectId, LocalDateTime slaDeadline) {
+        schedule(taskId, projectId, slaDeadline.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public void untrack(Long taskId) {
+
+        HierarchicalTimingWheel.Timeout<Entry> previous = timers.remove(taskId);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // Drops the timers of every project the predicate accepts, e.g. partitions handed to another node
+    public int untrackProjects(LongPredicate projects) {
+
+        int dropped = 0;
+
+        for (HierarchicalTimingWheel.Timeout<Entry> timeout : timers.values()) {
+            Entry entry = timeout.payload();
+            if (projects.test(entry.projectId()) && timers.remove(entry.taskId(), timeout)) {
+                timeout.cancel();
+                dropped++;
+            }
+        }
+
+        return dropped;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    private void schedule(Long taskId, long projectId, Instant deadline) {
+
+        timers.compute(taskId, (id, previous) -> {
+
+            if (previous != null) {
+                if (previous.payload().deadline().equals(deadline)) {
+                    return previous; // unchanged, keep the armed timer
+                }
+                previous.cancel();
+            }
+
+            return wheel.schedule(new Entry(id, projectId, deadline), deadline);
+        });
+    }
+
+    // Runs on the wheel thread; hand off right away
+    private void expire(Entry entry) {
+
+        timers.computeIfPresent(entry.taskId(), (id, t) -> t.payload() == entry ? null : t);
+
+        firing.submit(() -> {
+            try {
+                onDue.accept(entry.taskId());
+            } catch (Exception e) {
+                log.error("SLA deadline handling for task {} failed: {}", entry.taskId(), e.getMessage());
+            }
+        });
+    }
+
+    // ========================= HELPERS =========================
+    private static Instant openDeadline(Task task) {
+
+        if (task.getSlaDeadline() == null
+                || task.isSlaBreached()
+                || task.getStatus() == TaskStatus.DONE) {
+            return null;
+        }
+
+        return task.getSlaDeadline().atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private record Entry(Long taskId, long projectId, Instant deadline) {
+    }
+}
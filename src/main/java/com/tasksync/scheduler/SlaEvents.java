@@ -0,0 +1,72 @@
+package com.tasksync.scheduler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR events for the SLA scheduler, so scan and breach work can be lined up with
+ * GC pauses and safepoints in a recording. Cheap when no recording is running.
+ */
+public final class SlaEvents {
+
+    private SlaEvents() {
+    }
+
+    @Name("com.tasksync.sla.Scan")
+    @Label("SLA Reconciliation Scan")
+    @Category({"Tasksync", "SLA"})
+    @StackTrace(false)
+    public static class Scan extends Event {
+
+        @Label("Partitions")
+        int partitions;
+
+        @Label("Chunks")
+        int chunks;
+
+        @Label("Tasks Examined")
+        int examined;
+
+        @Label("Tasks Breached")
+        int breached;
+    }
+
+    @Name("com.tasksync.sla.Breach")
+    @Label("SLA Breach Batch")
+    @Description("Tasks breached in one transaction, with how late the breach was detected")
+    @Category({"Tasksync", "SLA"})
+    @StackTrace(false)
+    public static class Breach extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Tasks")
+        int tasks;
+
+        @Label("Max Detection Lag")
+        @Timespan(Timespan.MILLISECONDS)
+        long maxLagMillis;
+    }
+
+    @Name("com.tasksync.sla.WorkflowDispatch")
+    @Label("SLA Workflow Dispatch")
+    @Category({"Tasksync", "SLA"})
+    @StackTrace(false)
+    public static class WorkflowDispatch extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Project Id")
+        long projectId;
+
+        @Label("Events")
+        int events;
+    }
+}
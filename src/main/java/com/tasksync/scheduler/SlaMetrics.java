@@ -0,0 +1,164 @@
+package com.tasksync.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.Gauge;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SLA breach metrics.
+ * <p>
+ * {@code sla.breach.batch} times one whole breach batch and
+ * {@code sla.breach.row} records that time divided by the batch size. Both are
+ * tagged {@code path=bulk} (reconciliation chunk) or {@code path=single} (deadline
+ * index, one task), so the two paths can be compared per row.
+ * <p>
+ * {@code sla.reconcile.*} describe whole reconciliation runs: wall time, tasks
+ * examined and breached, and how long the slowest project's workflow took.
+ * <p>
+ * {@code sla.detection.lag} is breach time minus the SLA deadline, per task.
+ * The {@code path=single} series shows how late the deadline index fires and
+ * {@code path=bulk} shows what reconciliation catches late.
+ * {@code sla.workflow.dispatch} times handing breach events to the workflow
+ * engine. {@code sla.open} is the number of open deadlines in this node's index.
+ */
+@Component
+public class SlaMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer bulkBatch;
+    private final Timer bulkRow;
+    private final Timer singleBatch;
+    private final Timer singleRow;
+    private final DistributionSummary bulkSize;
+    private final Counter breached;
+
+    private final Timer run;
+    private final Counter runExamined;
+    private final Counter runBreached;
+    private final Timer slowestProject;
+    private final AtomicLong lastSlowestProjectMs = new AtomicLong();
+
+    private final Timer bulkLag;
+    private final Timer singleLag;
+    private final Timer bulkDispatch;
+    private final Timer singleDispatch;
+
+    public SlaMetrics(MeterRegistry meterRegistry, SlaDeadlineIndex slaDeadlineIndex) {
+
+        this.meterRegistry = meterRegistry;
+
+        this.bulkBatch = batchTimer("bulk");
+        this.bulkRow = rowTimer("bulk");
+        this.singleBatch = batchTimer("single");
+        this.singleRow = rowTimer("single");
+
+        this.bulkSize = DistributionSummary.builder("sla.breach.batch.rows")
+                .description("Tasks breached per reconciliation chunk")
+                .register(meterRegistry);
+
+        this.breached = meterRegistry.counter("sla.breached");
+
+        this.run = Timer.builder("sla.reconcile.run")
+                .description("Wall time of one reconciliation run")
+                .register(meterRegistry);
+        this.runExamined = meterRegistry.counter("sla.reconcile.examined");
+        this.runBreached = meterRegistry.counter("sla.reconcile.breached");
+        this.slowestProject = Timer.builder("sla.reconcile.slowest.project")
+                .description("Workflow time of the slowest project in a run")
+                .register(meterRegistry);
+
+        meterRegistry.gauge("sla.reconcile.slowest.project.last.ms", lastSlowestProjectMs);
+
+        this.bulkLag = lagTimer("bulk");
+        this.singleLag = lagTimer("single");
+        this.bulkDispatch = dispatchTimer("bulk");
+        this.singleDispatch = dispatchTimer("single");
+
+        Gauge.builder("sla.open", slaDeadlineIndex, SlaDeadlineIndex::size)
+                .description("Open SLA deadlines tracked by this node")
+                .register(meterRegistry);
+    }
+
+    // ========================= DETECTION LAG =========================
+    public void recordLag(boolean bulk, long lagMillis) {
+        (bulk ? bulkLag : singleLag).record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+
+    // ========================= WORKFLOW DISPATCH =========================
+    public void recordDispatch(boolean bulk, long nanos) {
+        (bulk ? bulkDispatch : singleDispatch).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ========================= RECONCILIATION RUN =========================
+    public void recordRun(int examined, int breachedTasks, long wallNanos, long slowestProjectNanos) {
+
+        run.record(wallNanos, TimeUnit.NANOSECONDS);
+        runExamined.increment(examined);
+        runBreached.increment(breachedTasks);
+
+        if (slowestProjectNanos > 0) {
+            slowestProject.record(slowestProjectNanos, TimeUnit.NANOSECONDS);
+        }
+        lastSlowestProjectMs.set(TimeUnit.NANOSECONDS.toMillis(slowestProjectNanos));
+    }
+
+    // ========================= BREACH COST =========================
+    public void recordBulk(long nanos, int rows) {
+        record(bulkBatch, bulkRow, nanos, rows);
+        bulkSize.record(rows);
+    }
+
+    public void recordSingle(long nanos) {
+        record(singleBatch, singleRow, nanos, 1);
+    }
+
+    private void record(Timer batch, Timer row, long nanos, int rows) {
+
+        if (rows == 0) {
+            return;
+        }
+
+        batch.record(nanos, TimeUnit.NANOSECONDS);
+        row.record(nanos / rows, TimeUnit.NANOSECONDS);
+        breached.increment(rows);
+    }
+
+    private Timer batchTimer(String path) {
+        return Timer.builder("sla.breach.batch")
+                .description("Time to breach one batch of tasks")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private Timer lagTimer(String path) {
+        return Timer.builder("sla.detection.lag")
+                .description("Time from SLA deadline to breach detection")
+                .tag("path", path)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(meterRegistry);
+    }
+
+    private Timer dispatchTimer(String path) {
+        return Timer.builder("sla.workflow.dispatch")
+                .description("Time to hand breach events to the workflow engine")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private Timer rowTimer(String path) {
+        return Timer.builder("sla.breach.row")
+                .description("Breach time per task, amortised over its batch")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,278 @@
+package com.tasksync.scheduler;
+
+import com.tasksync.entity.SchedulerLease;
+import com.tasksync.repository.SchedulerLeaseRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Decides which slice of the SLA scan this node runs, using leases stored in
+ * {@code scheduler_leases}.
+ * <p>
+ * In {@code SINGLE} mode there is one lease and its holder scans everything. In
+ * {@code PARTITIONED} mode tasks are split by {@code MOD(project_id, partitions)}.
+ * Every node keeps a membership lease alive and holds at most
+ * {@code ceil(partitions / live nodes)} partition leases. It releases the surplus
+ * when a node joins and picks up expired leases when a node dies, so ownership
+ * rebalances within one lease TTL.
+ * <p>
+ * Leases spread the work. Correctness does not depend on them: the scan still
+ * claims rows with SKIP LOCKED and breaches with a conditional UPDATE. Listeners
+ * registered with {@link #onChange} hear about every change of ownership, so the
+ * deadline index can follow the partitions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlaPartitionCoordinator {
+
+    private static final String SINGLE_LEASE = "sla:single";
+    private static final String PARTITION_PREFIX = "sla:partition:";
+    private static final String NODE_PREFIX = "sla:node:";
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Value("${app.sla.cluster.mode:SINGLE}")
+    private SlaClusterMode mode;
+
+    @Value("${app.sla.cluster.partitions:16}")
+    private int partitions;
+
+    @Value("${app.sla.cluster.lease-ttl-ms:30000}")
+    private long leaseTtlMs;
+
+    @Value("${app.sla.cluster.node-id:}")
+    private String nodeId;
+
+    private volatile SlaPartitions assignment = SlaPartitions.NONE;
+    private volatile Instant validUntil = Instant.EPOCH;
+
+    // Lease rows are never deleted, so they are created once rather than checked every tick
+    private volatile boolean leaseRowsCreated;
+
+    private final List<BiConsumer<SlaPartitions, SlaPartitions>> listeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void init() {
+
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+
+        log.info("SLA scan coordination: mode={}, node={}, partitions={}", mode, nodeId,
+                mode == SlaClusterMode.PARTITIONED ? partitions : 1);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        try {
+            releaseAll();
+        } catch (Exception e) {
+            log.debug("Could not release SLA leases on shutdown: {}", e.getMessage());
+        }
+    }
+
+    // ========================= ASSIGNMENT =========================
+    // Owned partitions, or NONE when the leases may already have lapsed
+    public SlaPartitions currentAssignment() {
+
+        if (Instant.now().plusMillis(leaseTtlMs / 3).isAfter(validUntil)) {
+            heartbeat();
+        }
+
+        return Instant.now().isBefore(validUntil) ? assignment : SlaPartitions.NONE;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Called with (previous, next) on the heartbeat thread; keep it short
+    public void onChange(BiConsumer<SlaPartitions, SlaPartitions> listener) {
+        listeners.add(listener);
+    }
+
+    // ========================= HEARTBEAT =========================
+    @Scheduled(fixedDelayString = "${app.sla.cluster.heartbeat-ms:10000}")
+    public synchronized void heartbeat() {
+
+        Instant now = Instant.now();
+        Instant until = now.plusMillis(leaseTtlMs);
+
+        try {
+            if (!leaseRowsCreated) {
+                createLeaseRows();
+                leaseRowsCreated = true;
+            }
+
+            SlaPartitions next = mode == SlaClusterMode.SINGLE
+                    ? heartbeatSingle(now, until)
+                    : heartbeatPartitioned(now, until);
+
+            SlaPartitions previous = assignment;
+
+            assignment = next;
+            validUntil = until;
+
+            if (!next.equals(previous)) {
+                log.info("SLA partitions owned by {}: {} of {}", nodeId, next.owned(), next.modulus());
+                listeners.forEach(listener -> listener.accept(previous, next));
+            }
+
+        } catch (Exception e) {
+            log.error("SLA lease heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private SlaPartitions heartbeatSingle(Instant now, Instant until) {
+        return schedulerLeaseRepository.tryAcquire(SINGLE_LEASE, nodeId, now, until) == 1
+                ? new SlaPartitions(1, List.of(0))
+                : SlaPartitions.NONE;
+    }
+
+    private SlaPartitions heartbeatPartitioned(Instant now, Instant until) {
+
+        // ---------- Membership ----------
+        String nodeLease = NODE_PREFIX + nodeId;
+        if (schedulerLeaseRepository.tryAcquire(nodeLease, nodeId, now, until) == 0) {
+            // Always ours, so 0 means the row is gone
+            ensureExists(nodeLease);
+            schedulerLeaseRepository.tryAcquire(nodeLease, nodeId, now, until);
+        }
+
+        long liveNodes = Math.max(1, schedulerLeaseRepository.countLive(NODE_PREFIX, now));
+        int fairShare = (int) ((partitions + liveNodes - 1) / liveNodes);
+
+        // ---------- Current partition leases ----------
+        Map<Integer, SchedulerLease> leases = new TreeMap<>();
+        for (SchedulerLease lease : schedulerLeaseRepository.findByNameStartingWith(PARTITION_PREFIX)) {
+            int p = Integer.parseInt(lease.getName().substring(PARTITION_PREFIX.length()));
+            if (p < partitions) {
+                leases.put(p, lease);
+            }
+        }
+
+        if (leases.size() < partitions) {
+            leaseRowsCreated = false; // some were removed; put them back on the next tick
+        }
+
+        List<Integer> mine = new ArrayList<>();
+        List<Integer> free = new ArrayList<>();
+
+        leases.forEach((p, lease) -> {
+            if (nodeId.equals(lease.getOwner()) && lease.getExpiresAt().isAfter(now)) {
+                mine.add(p);
+            } else if (lease.getOwner() == null || !lease.getExpiresAt().isAfter(now)) {
+                free.add(p);
+            }
+        });
+
+        // ---------- Give back surplus so a new node can take it ----------
+        while (mine.size() > fairShare) {
+            int p = mine.remove(mine.size() - 1);
+            schedulerLeaseRepository.release(PARTITION_PREFIX + p, nodeId, now);
+        }
+
+        // ---------- Renew what we keep ----------
+        mine.removeIf(p -> schedulerLeaseRepository.tryAcquire(PARTITION_PREFIX + p, nodeId, now, until) == 0);
+
+        // ---------- Take free or expired partitions up to the fair share ----------
+        for (int p : free) {
+            if (mine.size() >= fairShare) {
+                break;
+            }
+            if (schedulerLeaseRepository.tryAcquire(PARTITION_PREFIX + p, nodeId, now, until) == 1) {
+                mine.add(p);
+            }
+        }
+
+        Collections.sort(mine);
+        return mine.isEmpty() ? SlaPartitions.NONE : new SlaPartitions(partitions, List.copyOf(mine));
+    }
+
+    private synchronized void releaseAll() {
+
+        Instant now = Instant.now();
+
+        if (mode == SlaClusterMode.SINGLE) {
+            schedulerLeaseRepository.release(SINGLE_LEASE, nodeId, now);
+        } else {
+            for (int p : assignment.owned()) {
+                schedulerLeaseRepository.release(PARTITION_PREFIX + p, nodeId, now);
+            }
+            schedulerLeaseRepository.release(NODE_PREFIX + nodeId, nodeId, now);
+        }
+
+        assignment = SlaPartitions.NONE;
+        validUntil = Instant.EPOCH;
+    }
+
+    // ========================= HELPERS =========================
+    private void createLeaseRows() {
+
+        if (mode == SlaClusterMode.SINGLE) {
+            ensureExists(SINGLE_LEASE);
+            return;
+        }
+
+        ensureExists(NODE_PREFIX + nodeId);
+        for (int p = 0; p < partitions; p++) {
+            ensureExists(PARTITION_PREFIX + p);
+        }
+    }
+
+    private void ensureExists(String name) {
+
+        if (schedulerLeaseRepository.existsById(name)) {
+            return;
+        }
+
+        try {
+            schedulerLeaseRepository.saveAndFlush(new SchedulerLease(name, null, Instant.EPOCH));
+        } catch (DataIntegrityViolationException e) {
+            // created concurrently by another node
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+
+    // ========================= ASSIGNMENT VALUE =========================
+    public record SlaPartitions(int modulus, List<Integer> owned) {
+
+        public static final SlaPartitions NONE = new SlaPartitions(1, List.of());
+
+        public boolean isEmpty() {
+            return owned.isEmpty();
+        }
+
+        public boolean owns(long projectId) {
+            return owned.contains(Math.floorMod(projectId, modulus));
+        }
+
+        // Partitions held here but not in other; all of them when the modulus differs
+        public List<Integer> notIn(SlaPartitions other) {
+            return other.modulus == modulus
+                    ? owned.stream().filter(p -> !other.owned.contains(p)).toList()
+                    : owned;
+        }
+    }
+}
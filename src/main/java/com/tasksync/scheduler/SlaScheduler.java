@@ -1,70 +1,445 @@
 package com.tasksync.scheduler;
 
 import com.tasksync.entity.Task;
-import com.tasksync.entity.TaskActivity;
 import com.tasksync.entity.TaskStatus;
 import com.tasksync.entity.WorkflowEventType;
-import com.tasksync.repository.TaskActivityRepository;
 import com.tasksync.repository.TaskRepository;
-import com.tasksync.service.WorkflowEngine;
+import com.tasksync.service.WorkflowOutboxService;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowDispatchMode;
+import com.tasksync.workflow.WorkflowEventPublisher;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.ZoneId;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * SLA breach detection.
+ * <p>
+ * Breaches normally fire at the deadline from the {@link SlaDeadlineIndex}. The
+ * periodic pass reconciles against the DB and breaches anything overdue the index
+ * missed. The index is loaded from an id/deadline projection for the partitions
+ * this node owns, and follows ownership as partitions move between nodes.
+ * <p>
+ * Reconciliation only covers the project partitions this node leases from the
+ * {@link SlaPartitionCoordinator}. It works in chunks: overdue ids are claimed with SKIP LOCKED, flagged
+ * with one UPDATE, their activity rows go in as one JDBC batch and their workflow
+ * events are published as one batch.
+ * <p>
+ * With {@code SYNC} workflow dispatch the rules run on this thread, which is where
+ * most of the time goes. The breach events are written to the workflow outbox in
+ * the breach transaction and relayed right after it commits, one virtual thread
+ * per project (tasks of a project stay in id order), with at most
+ * {@code app.sla.parallelism} projects holding a connection at once. An event that
+ * fails, or is never relayed because the node died, stays in the outbox and is
+ * retried by {@link WorkflowOutboxScheduler}, so no escalation is lost.
+ * <p>
+ * Scans, breach batches and workflow dispatch are reported to {@link SlaMetrics}
+ * and as {@link SlaEvents} JFR events.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class SlaScheduler {
 
+    private static final String BREACH_ACTION = "SLA breached for task";
+
+    private static final String INSERT_ACTIVITY =
+            "insert into task_activities (task_id, actor_id, action, created_at) values (?, ?, ?, ?)";
+
     private final TaskRepository taskRepository;
-    private final TaskActivityRepository taskActivityRepository;
-    private final WorkflowEngine workflowEngine;
+    private final WorkflowEventPublisher workflowEventPublisher;
+    private final WorkflowOutboxService workflowOutboxService;
+    private final SlaDeadlineIndex slaDeadlineIndex;
+    private final SlaMetrics slaMetrics;
+    private final SlaPartitionCoordinator slaPartitionCoordinator;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.sla.scan-batch-size:500}")
+    private int scanBatchSize;
+
+    // Keep below the connection pool size so request threads still get connections
+    @Value("${app.sla.parallelism:4}")
+    private int parallelism;
+
+    // Index changes run in order, off the heartbeat thread
+    private final ExecutorService rearm =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("sla-index-rearm").factory());
+
+    @PostConstruct
+    void registerHandlers() {
+        slaDeadlineIndex.onDue(this::onDeadline);
+        slaPartitionCoordinator.onChange(this::onPartitionsChanged);
+    }
+
+    @PreDestroy
+    void stop() {
+        rearm.shutdownNow();
+    }
+
+    // ========================= EXACT DEADLINE =========================
+    void onDeadline(Long taskId) {
+
+        Deferred deferred = new TransactionTemplate(transactionManager).execute(status -> {
+
+            long start = System.nanoTime();
+            SlaEvents.Breach event = new SlaEvents.Breach();
+            event.begin();
+
+            Task task = taskRepository.findById(taskId).orElse(null);
+
+            if (task == null
+                    || task.getSlaDeadline() == null
+                    || task.isSlaBreached()
+                    || task.getStatus() == TaskStatus.DONE) {
+                return Deferred.NONE;
+            }
+
+            if (LocalDateTime.now().isBefore(task.getSlaDeadline())) {
+                slaDeadlineIndex.track(task); // deadline moved since it was armed
+                return Deferred.NONE;
+            }
+
+            // ---------- Claim: no-op if someone else already breached it ----------
+            Instant now = Instant.now();
+            if (taskRepository.markSlaBreached(task.getId(), now) == 0) {
+                return Deferred.NONE;
+            }
+
+            long maxLag = afterBreach(List.of(task), now, false);
+            slaMetrics.recordSingle(System.nanoTime() - start);
+            commit(event, "single", 1, maxLag);
+
+            return publishOrRecord(List.of(breachEvent(task)), false, task.getProject().getId());
+        });
+
+        if (deferred != null) {
+            deferred.byProject().forEach((projectId, ids) -> relay(ids, false, projectId));
+        }
+    }
+
+    // ========================= INDEX REBUILD =========================
+    // Follows partition ownership: timers of partitions that moved away are dropped,
+    // open deadlines of partitions that arrived are loaded. One change at a time.
+    private void onPartitionsChanged(SlaPartitionCoordinator.SlaPartitions previous,
+                                     SlaPartitionCoordinator.SlaPartitions next) {
+
+        rearm.submit(() -> {
+            try {
+                List<Integer> lost = previous.notIn(next);
+                if (!lost.isEmpty()) {
+                    int dropped = slaDeadlineIndex.untrackProjects(
+                            projectId -> lost.contains(Math.floorMod(projectId, previous.modulus())));
+                    log.info("SLA deadline index: {} timer(s) dropped for partitions {}", dropped, lost);
+                }
+
+                List<Integer> gained = next.notIn(previous);
+                if (!gained.isEmpty()) {
+                    loadDeadlines(next.modulus(), gained);
+                }
+            } catch (Exception e) {
+                log.error("SLA deadline index rebuild failed, reconciliation covers the gap: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void loadDeadlines(int modulus, List<Integer> partitions) {
+
+        long cursor = 0;
+        int tracked = 0;
+
+        while (true) {
+
+            List<TaskRepository.OpenSlaDeadline> batch =
+                    taskRepository.findOpenSlaDeadlines(modulus, partitions, cursor, Limit.of(scanBatchSize));
+
+            batch.forEach(d -> slaDeadlineIndex.track(d.getId(), d.getProjectId(), d.getSlaDeadline()));
+            tracked += batch.size();
+
+            if (batch.size() < scanBatchSize) {
+                break;
+            }
+            cursor = batch.get(batch.size() - 1).getId();
+        }
+
+        log.info("SLA deadline index: {} open deadline(s) loaded for partitions {}", tracked, partitions);
+    }
 
-    // Runs every 5 minutes
-    @Scheduled(fixedDelay = 5 * 60 * 1000)
+    // ========================= RECONCILIATION =========================
+    // Runs every 5 minutes by default. Only overdue tasks are read, in id order,
+    // one short transaction per chunk, so memory does not grow with the backlog.
+    @Scheduled(fixedDelayString = "${app.sla.reconcile-ms:300000}")
     public void checkSlaBreaches() {
 
-        List<Task> tasks = taskRepository
-                .findBySlaHoursNotNullAndSlaBreachedFalseAndStatusNot(TaskStatus.DONE);
+        // ---------- Only the partitions this node currently leases ----------
+        SlaPartitionCoordinator.SlaPartitions partitions = slaPartitionCoordinator.currentAssignment();
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        SlaEvents.Scan scan = new SlaEvents.Scan();
+        scan.begin();
 
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
         LocalDateTime now = LocalDateTime.now();
+        RunStats run = new RunStats();
+        Semaphore permits = new Semaphore(parallelism);
+
+        long cursor = 0;
+
+        while (true) {
+
+            long afterId = cursor;
+            ScanChunk chunk = tx.execute(status -> breachChunk(now, partitions, afterId));
+
+            if (chunk == null || chunk.size() == 0) {
+                break;
+            }
+
+            scan.chunks++;
+            run.examined.addAndGet(chunk.size());
+            run.breached.addAndGet(chunk.breached());
+
+            // Committed; the chunk's workflow events finish before the next chunk
+            // starts, so a project's events never overtake each other
+            handleByProject(chunk.deferred(), permits, run);
+
+            cursor = chunk.lastId();
+
+            if (chunk.size() < scanBatchSize) {
+                break;
+            }
+        }
+
+        long wallNanos = System.nanoTime() - start;
+        slaMetrics.recordRun(run.examined.get(), run.breached.get(), wallNanos, run.slowestNanos);
+
+        scan.partitions = partitions.owned().size();
+        scan.examined = run.examined.get();
+        scan.breached = run.breached.get();
+        scan.commit();
+
+        if (run.breached.get() > 0) {
+            log.warn("SLA reconciliation breached {} task(s) the deadline index missed "
+                            + "({} examined, {} ms, slowest project {} at {} ms)",
+                    run.breached.get(),
+                    run.examined.get(),
+                    Duration.ofNanos(wallNanos).toMillis(),
+                    run.slowestProjectId,
+                    Duration.ofNanos(run.slowestNanos).toMillis());
+        }
+    }
+
+    private ScanChunk breachChunk(LocalDateTime now, SlaPartitionCoordinator.SlaPartitions partitions, long afterId) {
+
+        long start = System.nanoTime();
+        SlaEvents.Breach event = new SlaEvents.Breach();
+        event.begin();
+
+        // ---------- Claim the chunk; rows locked by another node are skipped ----------
+        List<Long> ids = taskRepository.lockOverdueSlaIds(
+                now,
+                partitions.modulus(),
+                partitions.owned(),
+                afterId,
+                Limit.of(scanBatchSize)
+        );
+
+        if (ids.isEmpty()) {
+            return new ScanChunk(0, afterId, 0, Deferred.NONE);
+        }
+
+        // ---------- One UPDATE for the whole chunk ----------
+        Instant breachedAt = Instant.now();
+        int breached = taskRepository.markSlaBreached(ids, breachedAt);
+
+        List<Task> tasks = taskRepository.findWithGraphByIdIn(ids);
+        long maxLag = afterBreach(tasks, breachedAt, true);
+        slaMetrics.recordBulk(System.nanoTime() - start, breached);
+        commit(event, "bulk", breached, maxLag);
+
+        List<WorkflowContext> events = tasks.stream().map(SlaScheduler::breachEvent).toList();
+
+        return new ScanChunk(ids.size(), ids.get(ids.size() - 1), breached, publishOrRecord(events, true, WorkflowContext.NONE));
+    }
+
+    // ---------- Outbox rows and async submissions belong to the breach transaction ----------
+    // SYNC events are recorded in the outbox instead, to be relayed once it commits
+    private Deferred publishOrRecord(List<WorkflowContext> events, boolean bulk, long projectId) {
+
+        if (workflowEventPublisher.getMode() != WorkflowDispatchMode.SYNC) {
+            dispatch(events.size(), bulk, projectId, () -> workflowEventPublisher.publishAll(events));
+            return Deferred.NONE;
+        }
+
+        List<Long> ids = workflowOutboxService.appendAll(events);
+        Map<Long, List<Long>> byProject = new LinkedHashMap<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            byProject.computeIfAbsent(events.get(i).projectId(), p -> new ArrayList<>()).add(ids.get(i));
+        }
+
+        return new Deferred(byProject);
+    }
+
+    // ========================= PER-PROJECT FAN-OUT =========================
+    // One virtual thread per project. Each event runs in its own transaction, in
+    // task id order within its project; failures stay in the outbox for retry.
+    private void handleByProject(Deferred deferred, Semaphore permits, RunStats run) {
+
+        if (deferred.byProject().isEmpty()) {
+            return;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            deferred.byProject().forEach((projectId, ids) -> executor.submit(() -> {
+                permits.acquireUninterruptibly();
+                long start = System.nanoTime();
+                try {
+                    relay(ids, true, projectId);
+                } finally {
+                    permits.release();
+                    run.project(projectId, System.nanoTime() - start);
+                }
+            }));
+        }
+    }
+
+    // ========================= AFTER BREACH =========================
+    // Activity rows, index cleanup and detection lag for tasks already flagged.
+    // Returns the largest lag in milliseconds.
+    private long afterBreach(List<Task> tasks, Instant breachedAt, boolean bulk) {
+
+        List<Object[]> activities = new ArrayList<>(tasks.size());
+        Timestamp createdAt = Timestamp.from(breachedAt);
+        long maxLag = 0;
 
         for (Task task : tasks) {
 
-            if (task.getSlaDeadline() != null && now.isAfter(task.getSlaDeadline())) {
+            long lag = Duration.between(
+                    task.getSlaDeadline().atZone(ZoneId.systemDefault()).toInstant(),
+                    breachedAt
+            ).toMillis();
+            slaMetrics.recordLag(bulk, lag);
+            maxLag = Math.max(maxLag, lag);
 
-                // ---------- Mark SLA breached ----------
-                task.setSlaBreached(true);
-                task.setUpdatedAt(Instant.now());
-                taskRepository.save(task);
+            task.setSlaBreached(true);
+            task.setUpdatedAt(breachedAt);
+            slaDeadlineIndex.untrack(task.getId());
 
-                // ---------- Log SLA breach activity ----------
-                TaskActivity activity = new TaskActivity();
-                activity.setTask(task);
-                activity.setActor(task.getProject().getManager()); // system owner
-                activity.setAction("SLA breached for task");
+            // Project manager is the system owner of the activity row
+            if (task.getProject().getManager() != null) {
+                activities.add(new Object[]{
+                        task.getId(),
+                        task.getProject().getManager().getId(),
+                        BREACH_ACTION,
+                        createdAt
+                });
+            } else {
+                log.warn("No project manager to own SLA breach activity of task {}", task.getId());
+            }
+
+            log.warn("SLA breached for Task ID {}", task.getId());
+        }
+
+        // ---------- Log SLA breach activity (one JDBC batch) ----------
+        if (!activities.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ACTIVITY, activities);
+        }
+
+        return maxLag;
+    }
+
+    // ========================= WORKFLOW DISPATCH =========================
+    private void relay(List<Long> outboxIds, boolean bulk, long projectId) {
+        dispatch(outboxIds.size(), bulk, projectId, () -> {
+            try {
+                workflowOutboxService.relay(outboxIds);
+            } catch (Exception e) {
+                log.error("SLA breach workflow for project {} left to the outbox poller: {}", projectId, e.getMessage());
+            }
+        });
+    }
+
+    private void dispatch(int events, boolean bulk, long projectId, Runnable work) {
+
+        SlaEvents.WorkflowDispatch event = new SlaEvents.WorkflowDispatch();
+        event.begin();
+        long start = System.nanoTime();
+
+        try {
+            work.run();
+        } finally {
+            slaMetrics.recordDispatch(bulk, System.nanoTime() - start);
+
+            if (event.shouldCommit()) {
+                event.path = bulk ? "bulk" : "single";
+                event.projectId = projectId;
+                event.events = events;
+                event.commit();
+            }
+        }
+    }
+
+    private static void commit(SlaEvents.Breach event, String path, int tasks, long maxLagMillis) {
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.tasks = tasks;
+            event.maxLagMillis = maxLagMillis;
+            event.commit();
+        }
+    }
+
+    private static WorkflowContext breachEvent(Task task) {
+        return WorkflowContext.forTask(WorkflowEventType.TASK_SLA_BREACHED, task);
+    }
+
+    private record ScanChunk(int size, long lastId, int breached, Deferred deferred) {
+    }
+
+    // Outbox ids per project, in task id order, to relay once the breach commits (SYNC dispatch)
+    private record Deferred(Map<Long, List<Long>> byProject) {
+
+        static final Deferred NONE = new Deferred(Map.of());
+    }
 
-                taskActivityRepository.save(activity);
+    private static class RunStats {
 
-                // ---------- Emit workflow event ----------
-                Map<String, Object> context = new HashMap<>();
-                context.put("task", task);
-                context.put("project", task.getProject());
+        final AtomicInteger examined = new AtomicInteger();
+        final AtomicInteger breached = new AtomicInteger();
 
-                workflowEngine.handleEvent(
-                        WorkflowEventType.TASK_SLA_BREACHED,
-                        context
-                );
+        long slowestProjectId;
+        long slowestNanos;
 
-                log.warn("SLA breached for Task ID {}", task.getId());
+        synchronized void project(long projectId, long nanos) {
+            if (nanos > slowestNanos) {
+                slowestNanos = nanos;
+                slowestProjectId = projectId;
             }
         }
     }
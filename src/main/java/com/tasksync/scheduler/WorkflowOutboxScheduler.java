@@ -0,0 +1,32 @@
+package com.tasksync.scheduler;
+
+import com.tasksync.service.WorkflowOutboxService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowOutboxScheduler {
+
+    private final WorkflowOutboxService workflowOutboxService;
+
+    // Polls every second by default. In OUTBOX mode it carries every event; in SYNC
+    // mode it only picks up SLA breach events whose immediate relay failed or never ran
+    @Scheduled(fixedDelayString = "${app.workflow.outbox.poll-ms:1000}")
+    public void relayOutbox() {
+
+        try {
+            int relayed = workflowOutboxService.relayDue();
+
+            if (relayed > 0) {
+                log.debug("Relayed {} workflow outbox event(s)", relayed);
+            }
+        } catch (Exception e) {
+            log.error("Workflow outbox relay failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.SlaCalendar;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+/**
+ * One {@link SlaCalendar} version flattened into per-day tables over a fixed
+ * date range.
+ * <p>
+ * {@code cumulative[d]} is the working time, in seconds, from the start of the
+ * range to the start of day {@code d}. Working time at an instant is one table
+ * read plus the part of that day already worked. A deadline is a binary search
+ * for the day whose cumulative total reaches the target, so the cost does not
+ * depend on the SLA length. Instances are immutable and shared across threads.
+ */
+public final class CompiledSlaCalendar {
+
+    private final long calendarId;
+    private final long version;
+    private final ZoneId zone;
+    private final LocalDate firstDay;
+    private final int days;
+
+    // ---- Per day: window start (second of day) and working seconds ----
+    private final int[] windowStart;
+    private final int[] windowLength;
+
+    // ---- days + 1 entries, non-decreasing ----
+    private final long[] cumulative;
+
+    private CompiledSlaCalendar(long calendarId, long version, ZoneId zone, LocalDate firstDay, int days) {
+        this.calendarId = calendarId;
+        this.version = version;
+        this.zone = zone;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.windowStart = new int[days];
+        this.windowLength = new int[days];
+        this.cumulative = new long[days + 1];
+    }
+
+    // ========================= COMPILE =========================
+    public static CompiledSlaCalendar compile(SlaCalendar calendar, LocalDate firstDay, int days) {
+
+        CompiledSlaCalendar compiled = new CompiledSlaCalendar(
+                calendar.getId(),
+                calendar.getVersion(),
+                ZoneId.of(calendar.getZoneId()),
+                firstDay,
+                days
+        );
+
+        Set<DayOfWeek> workingDays = calendar.getWorkingDays();
+        Set<LocalDate> holidays = calendar.getHolidays();
+        int start = calendar.getWorkStart().toSecondOfDay();
+        int length = calendar.getWorkEnd().toSecondOfDay() - start;
+
+        LocalDate day = firstDay;
+        for (int d = 0; d < days; d++, day = day.plusDays(1)) {
+
+            if (workingDays.contains(day.getDayOfWeek()) && !holidays.contains(day)) {
+                compiled.windowStart[d] = start;
+                compiled.windowLength[d] = length;
+            }
+
+            compiled.cumulative[d + 1] = compiled.cumulative[d] + compiled.windowLength[d];
+        }
+
+        return compiled;
+    }
+
+    // ========================= QUERIES =========================
+    public boolean covers(Instant instant) {
+        int d = dayIndex(instant.atZone(zone));
+        return d >= 0 && d < days;
+    }
+
+    // Working seconds between two covered instants, negative when b is before a
+    public long workingSecondsBetween(Instant a, Instant b) {
+        return workingSecondsAt(b) - workingSecondsAt(a);
+    }
+
+    // The instant workSeconds of working time after start, or null past the last day
+    public Instant plusWorkingSeconds(Instant start, long workSeconds) {
+
+        if (workSeconds <= 0) {
+            return start;
+        }
+
+        long target = workingSecondsAt(start) + workSeconds;
+
+        if (target > cumulative[days]) {
+            return null;
+        }
+
+        // First k with cumulative[k] >= target; the target lands inside day k - 1
+        int lo = 1;
+        int hi = days;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] >= target) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+
+        int d = lo - 1;
+        int secondOfDay = windowStart[d] + (int) (target - cumulative[d]);
+
+        return firstDay.plusDays(d)
+                .atTime(LocalTime.ofSecondOfDay(secondOfDay))
+                .atZone(zone)
+                .toInstant();
+    }
+
+    private long workingSecondsAt(Instant instant) {
+
+        ZonedDateTime at = instant.atZone(zone);
+        int d = dayIndex(at);
+
+        if (d < 0) {
+            return 0;
+        }
+        if (d >= days) {
+            return cumulative[days];
+        }
+
+        int worked = at.toLocalTime().toSecondOfDay() - windowStart[d];
+        return cumulative[d] + Math.max(0, Math.min(worked, windowLength[d]));
+    }
+
+    private int dayIndex(ZonedDateTime at) {
+        return (int) ChronoUnit.DAYS.between(firstDay, at.toLocalDate());
+    }
+
+    // ========================= IDENTITY =========================
+    public long calendarId() {
+        return calendarId;
+    }
+
+    public long version() {
+        return version;
+    }
+}
@@ -0,0 +1,255 @@
+package com.tasksync.service;
+
+import com.tasksync.dto.WsNotificationDTO;
+import com.tasksync.entity.Notification;
+import com.tasksync.entity.NotificationType;
+import com.tasksync.repository.NotificationRepository;
+import com.tasksync.util.AfterCommit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges bursts of similar notifications into one stored row.
+ * <p>
+ * Only the types listed in {@code app.notifications.coalesce.types} are merged;
+ * by default that is {@code TASK_STATUS_CHANGED}, which workflow rules raise in
+ * bursts. The key is (recipient, type, project), plus the task for types about a
+ * single task, so notifications for different tasks never fold into one row.
+ * <p>
+ * The first notification for a key is inserted and pushed as usual, and its
+ * {@code createdAt} opens a window of
+ * {@code app.notifications.coalesce.window-ms}. Later notifications for the same
+ * key, while the row is unread and the window is open, increment its count and
+ * replace its message instead of adding rows. A fixed window keeps any one row
+ * from absorbing events forever.
+ * <p>
+ * Merges are not pushed one by one. The latest state of each merged row is held
+ * here and sent as a single frame on the next flush, at most every
+ * {@code app.notifications.coalesce.flush-ms}. A burst therefore costs the
+ * recipient two frames: the first event and the merged total. A window of 0
+ * turns coalescing off.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationCoalescer {
+
+    private static final int LOOKUP_BATCH = 500;
+
+    // Keyed by task as well: merging these across tasks would drop all but the last task
+    private static final Set<NotificationType> TASK_SCOPED = EnumSet.of(
+            NotificationType.TASK_ASSIGNED,
+            NotificationType.TASK_STATUS_CHANGED,
+            NotificationType.SLA_BREACHED,
+            NotificationType.SLA_ESCALATED
+    );
+
+    private final NotificationRepository notificationRepository;
+    private final WsNotificationSender wsNotificationSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.coalesce.window-ms:60000}")
+    private long windowMs;
+
+    @Value("${app.notifications.coalesce.types:TASK_STATUS_CHANGED}")
+    private Set<NotificationType> types = Set.of();
+
+    // Latest merged state per notification id, sent on the next flush
+    private final Map<Long, PendingFrame> pending = new ConcurrentHashMap<>();
+
+    private Counter merged;
+
+    @PostConstruct
+    void init() {
+        merged = Counter.builder("notifications.coalesced")
+                .description("Notifications merged into an existing row instead of inserted")
+                .register(meterRegistry);
+    }
+
+    // ========================= COALESCE =========================
+    // Folds what it can into open rows and returns the notifications still to insert
+    public List<Notification> coalesce(List<Notification> batch) {
+
+        if (windowMs <= 0 || types.isEmpty() || batch.isEmpty()) {
+            return batch;
+        }
+
+        Instant now = Instant.now();
+        Instant since = now.minusMillis(windowMs);
+
+        List<Notification> fresh = new ArrayList<>();
+
+        // ---- Repeats inside the batch collapse first: last message wins ----
+        Map<Key, Notification> distinct = new LinkedHashMap<>();
+        for (Notification n : batch) {
+            if (types.contains(n.getType())) {
+                distinct.merge(Key.of(n), n, NotificationCoalescer::fold);
+            } else {
+                fresh.add(n);
+            }
+        }
+
+        // ---- One lookup per (type, project) for all of its recipients ----
+        Map<Scope, List<Notification>> byScope = new LinkedHashMap<>();
+        distinct.forEach((key, n) -> byScope.computeIfAbsent(key.scope(), s -> new ArrayList<>()).add(n));
+
+        Map<Merge, List<Long>> merges = new HashMap<>();
+        Map<Long, Notification> toPush = new LinkedHashMap<>();
+
+        for (Map.Entry<Scope, List<Notification>> entry : byScope.entrySet()) {
+
+            Scope scope = entry.getKey();
+            Map<Long, NotificationRepository.OpenWindow> open = findOpenWindows(entry.getValue(), scope, since);
+
+            for (Notification n : entry.getValue()) {
+
+                NotificationRepository.OpenWindow window = open.get(n.getRecipient().getId());
+
+                if (window == null) {
+                    fresh.add(n);
+                    continue;
+                }
+
+                merges.computeIfAbsent(new Merge(n.getCount(), n.getMessage(), n.getTaskId()), m -> new ArrayList<>())
+                        .add(window.getId());
+
+                if (!n.getRecipient().prefersDigest()) {
+                    toPush.put(window.getId(), n);
+                }
+            }
+        }
+
+        // ---- Usually one UPDATE: a broadcast carries the same message for everyone ----
+        merges.forEach((merge, ids) ->
+                notificationRepository.mergeInto(ids, merge.added(), merge.message(), merge.taskId(), now));
+
+        int mergedCount = batch.size() - fresh.size();
+        if (mergedCount > 0) {
+            merged.increment(mergedCount);
+            List<PendingFrame> frames = framesFor(toPush, now);
+            AfterCommit.run(() -> frames.forEach(f -> pending.put(f.notificationId(), f)));
+        }
+
+        return fresh;
+    }
+
+    // Totals are read back after the UPDATE: the rows are locked until commit, so
+    // another node's merge into the same row is either already in them or waits
+    private List<PendingFrame> framesFor(Map<Long, Notification> toPush, Instant now) {
+
+        List<Long> ids = new ArrayList<>(toPush.keySet());
+        Map<Long, Integer> totals = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += LOOKUP_BATCH) {
+            notificationRepository.findCounts(ids.subList(from, Math.min(from + LOOKUP_BATCH, ids.size())))
+                    .forEach(c -> totals.put(c.getId(), c.getCount()));
+        }
+
+        List<PendingFrame> frames = new ArrayList<>(toPush.size());
+
+        toPush.forEach((id, n) -> frames.add(new PendingFrame(id, n.getRecipient().getUsername(), new WsNotificationDTO(
+                id,
+                n.getType(),
+                n.getMessage(),
+                n.getProjectId(),
+                n.getTaskId(),
+                now,
+                totals.getOrDefault(id, n.getCount()),
+                0L // numbered when it is sent
+        ))));
+
+        return frames;
+    }
+
+    private Map<Long, NotificationRepository.OpenWindow> findOpenWindows(
+            List<Notification> notifications,
+            Scope scope,
+            Instant since
+    ) {
+
+        List<Long> recipientIds = notifications.stream().map(n -> n.getRecipient().getId()).toList();
+        Map<Long, NotificationRepository.OpenWindow> open = new HashMap<>();
+
+        for (int from = 0; from < recipientIds.size(); from += LOOKUP_BATCH) {
+
+            List<Long> chunk = recipientIds.subList(from, Math.min(from + LOOKUP_BATCH, recipientIds.size()));
+
+            // Two open rows for one key only happen when nodes race; the newest wins
+            notificationRepository.findOpenWindows(
+                            chunk, scope.type(), scope.projectId(), scope.perTask(), scope.taskId(), since)
+                    .forEach(w -> open.merge(w.getRecipientId(), w, (a, b) -> a.getId() > b.getId() ? a : b));
+        }
+
+        return open;
+    }
+
+    private static Notification fold(Notification first, Notification next) {
+        first.setCount(first.getCount() + next.getCount());
+        first.setMessage(next.getMessage());
+        first.setTaskId(next.getTaskId());
+        first.setLastOccurredAt(next.getCreatedAt());
+        return first;
+    }
+
+    // ========================= FLUSH MERGED FRAMES =========================
+    @Scheduled(fixedDelayString = "${app.notifications.coalesce.flush-ms:5000}")
+    public void flush() {
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        int sent = 0;
+
+        for (Long id : new ArrayList<>(pending.keySet())) {
+
+            PendingFrame frame = pending.remove(id);
+
+            if (frame != null) {
+                wsNotificationSender.sendToUser(frame.username(), frame.payload());
+                sent++;
+            }
+        }
+
+        log.debug("Coalesced notification frames sent: {}", sent);
+    }
+
+    // ========================= KEYS =========================
+    // taskId is null unless perTask
+    private record Scope(NotificationType type, Long projectId, boolean perTask, Long taskId) {
+    }
+
+    private record Key(Long recipientId, Scope scope) {
+
+        static Key of(Notification n) {
+
+            boolean perTask = TASK_SCOPED.contains(n.getType());
+            Long taskId = perTask ? n.getTaskId() : null;
+
+            return new Key(n.getRecipient().getId(), new Scope(n.getType(), n.getProjectId(), perTask, taskId));
+        }
+    }
+
+    private record Merge(int added, String message, Long taskId) {
+    }
+
+    private record PendingFrame(Long notificationId, String username, WsNotificationDTO payload) {
+    }
+}
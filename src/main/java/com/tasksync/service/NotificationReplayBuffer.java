@@ -0,0 +1,191 @@
+package com.tasksync.service;
+
+import com.tasksync.dto.WsNotificationDTO;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user sequence numbers for pushed notifications, plus the last few frames
+ * so a reconnecting client can catch up.
+ * <p>
+ * Within one stream, numbers go up by exactly one, so a client that sees a jump
+ * knows it missed frames. This includes frames dropped by a full delivery lane,
+ * because numbers are assigned before queueing. A new stream, after a restart or
+ * after an idle stream was evicted, starts from {@code currentTimeMillis * 1000},
+ * or above the last number an evicted stream handed out if that is higher.
+ * Numbers therefore never go backwards, and a client's old number falls outside
+ * the buffer. A stream is only evicted while nobody holds it. Each stream keeps the last {@code app.notifications.ws.replay-capacity}
+ * frames in a ring. A gap older than that returns {@code null}, and the caller
+ * falls back to the database.
+ */
+@Component
+@Slf4j
+public class NotificationReplayBuffer {
+
+    @Value("${app.notifications.ws.replay-capacity:256}")
+    private int capacity;
+
+    @Value("${app.notifications.ws.replay-idle-ms:3600000}")
+    private long idleMs;
+
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    // Above every number an evicted stream handed out, so a new stream never reuses one
+    private final AtomicLong numberFloor = new AtomicLong();
+
+    // ========================= APPEND =========================
+    // Numbers the frame and runs the hand-off under the user's lock, so queue order matches sequence order
+    public void append(String username, WsNotificationDTO payload, Runnable handOff) {
+
+        while (true) {
+
+            Stream stream = streams.computeIfAbsent(username, u -> new Stream(capacity, numberFloor.get()));
+
+            stream.lock.lock();
+            try {
+                if (stream.evicted) {
+                    continue; // evicted between lookup and lock; the next lookup creates a fresh stream
+                }
+                stream.append(payload);
+                handOff.run();
+                return;
+            } finally {
+                stream.lock.unlock();
+            }
+        }
+    }
+
+    // ========================= REPLAY =========================
+    // Frames after lastSeq, oldest first; null when they are no longer all held here
+    public List<WsNotificationDTO> after(String username, long lastSeq) {
+
+        Stream stream = streams.get(username);
+
+        if (stream == null) {
+            return null;
+        }
+
+        stream.lock.lock();
+        try {
+            return stream.after(lastSeq);
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    // Last number handed out to the user, or 0 when there is no stream
+    public long latest(String username) {
+
+        Stream stream = streams.get(username);
+
+        if (stream == null) {
+            return 0;
+        }
+
+        stream.lock.lock();
+        try {
+            return stream.next - 1;
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    // ========================= EVICTION =========================
+    @Scheduled(fixedDelayString = "${app.notifications.ws.replay-evict-ms:300000}")
+    public void evictIdle() {
+
+        long idleBefore = System.currentTimeMillis() - idleMs;
+        int before = streams.size();
+
+        streams.values().removeIf(s -> s.tryEvict(idleBefore, numberFloor));
+
+        if (streams.size() < before) {
+            log.debug("Replay streams evicted: {} of {}", before - streams.size(), before);
+        }
+    }
+
+    public int size() {
+        return streams.size();
+    }
+
+    // ========================= STREAM =========================
+    private static final class Stream {
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        // Slot of frame n is n % ring.length; first is the number of the first frame
+        final WsNotificationDTO[] ring;
+        final long first;
+        long next;
+        volatile long lastAccess;
+        boolean evicted;
+
+        Stream(int capacity, long floor) {
+            this.ring = new WsNotificationDTO[Math.max(0, capacity)];
+            this.first = Math.max(System.currentTimeMillis() * 1000, floor);
+            this.next = first;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        // Only an idle stream nobody holds; an append waiting on the lock sees evicted and starts over
+        boolean tryEvict(long idleBefore, AtomicLong numberFloor) {
+
+            if (lastAccess >= idleBefore || !lock.tryLock()) {
+                return false;
+            }
+            try {
+                if (lastAccess >= idleBefore) {
+                    return false;
+                }
+                evicted = true;
+                numberFloor.accumulateAndGet(next, Math::max);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void append(WsNotificationDTO payload) {
+
+            payload.setSeq(next);
+
+            if (ring.length > 0) {
+                ring[(int) (next % ring.length)] = payload;
+            }
+
+            next++;
+            lastAccess = System.currentTimeMillis();
+        }
+
+        List<WsNotificationDTO> after(long lastSeq) {
+
+            lastAccess = System.currentTimeMillis();
+
+            if (lastSeq == next - 1) {
+                return List.of(); // up to date
+            }
+
+            long oldest = Math.max(first, next - ring.length);
+
+            if (lastSeq < oldest - 1 || lastSeq >= next) {
+                return null; // rolled over, or the number came from another stream
+            }
+
+            List<WsNotificationDTO> frames = new ArrayList<>((int) (next - lastSeq - 1));
+            for (long seq = lastSeq + 1; seq < next; seq++) {
+                frames.add(ring[(int) (seq % ring.length)]);
+            }
+            return frames;
+        }
+    }
+}
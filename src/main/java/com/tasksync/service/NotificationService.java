@@ -1,6 +1,11 @@
 package com.tasksync.service;
 
+import com.tasksync.dto.NotificationDigestDTO;
+import com.tasksync.dto.NotificationDigestItemDTO;
+import com.tasksync.dto.NotificationFeedDTO;
+import com.tasksync.dto.NotificationReplayDTO;
 import com.tasksync.dto.NotificationResponseDTO;
+import com.tasksync.dto.WsNotificationDTO;
 import com.tasksync.entity.Notification;
 import com.tasksync.entity.NotificationType;
 import com.tasksync.entity.User;
@@ -8,17 +13,36 @@ import com.tasksync.repository.NotificationRepository;
 import com.tasksync.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int MAX_IDS_PER_REQUEST = 1000;
+    private static final int MAX_FEED_LIMIT = 100;
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final WsNotificationSender wsNotificationSender;
+    private final NotificationUnreadCounters unreadCounters;
+    private final NotificationCoalescer coalescer;
+    private final NotificationReplayBuffer replayBuffer;
 
     // ========================= CREATE (INTERNAL USE) =========================
     public void createNotification(
@@ -28,6 +52,64 @@ public class NotificationService {
             Long projectId,
             Long taskId
     ) {
+        // Same path as a batch so a single notification can be coalesced too
+        createNotifications(List.of(buildNotification(recipient, type, message, projectId, taskId)));
+    }
+
+    // ========================= CREATE FOR MANY RECIPIENTS (INTERNAL USE) =========================
+    // Same message to every recipient, e.g. all members of a project
+    public void createNotifications(
+            Collection<User> recipients,
+            NotificationType type,
+            String message,
+            Long projectId,
+            Long taskId
+    ) {
+
+        List<Notification> notifications = new ArrayList<>(recipients.size());
+
+        for (User recipient : new LinkedHashSet<>(recipients)) {
+            notifications.add(buildNotification(recipient, type, message, projectId, taskId));
+        }
+
+        createNotifications(notifications);
+    }
+
+    // ========================= CREATE BATCH (INTERNAL USE) =========================
+    public void createNotifications(List<Notification> notifications) {
+
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        // Bursts for the same (recipient, type, project) fold into rows already open
+        List<Notification> fresh = coalescer.coalesce(notifications);
+
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // Multi-row INSERTs instead of one statement per notification
+        notificationRepository.insertAll(fresh);
+
+        // 🔔 Real-time push after commit, off the caller's thread; digest users get theirs later
+        wsNotificationSender.sendFromNotifications(
+                fresh.stream().filter(n -> !n.getRecipient().prefersDigest()).toList()
+        );
+
+        Map<User, Integer> perRecipient = new HashMap<>();
+        fresh.forEach(n -> perRecipient.merge(n.getRecipient(), 1, Integer::sum));
+        unreadCounters.added(perRecipient);
+    }
+
+    // ========================= BUILD (UNSAVED) =========================
+    public Notification buildNotification(
+            User recipient,
+            NotificationType type,
+            String message,
+            Long projectId,
+            Long taskId
+    ) {
 
         Notification notification = new Notification();
         notification.setRecipient(recipient);
@@ -35,11 +117,9 @@ public class NotificationService {
         notification.setMessage(message);
         notification.setProjectId(projectId);
         notification.setTaskId(taskId);
+        notification.setLastOccurredAt(notification.getCreatedAt());
 
-        Notification saved = notificationRepository.save(notification);
-
-        // 🔔 Real-time push
-        wsNotificationSender.sendFromNotification(saved);
+        return notification;
     }
 
     // ========================= FETCH PAGINATED =========================
@@ -56,13 +136,94 @@ public class NotificationService {
                 .map(this::mapToDTO);
     }
 
-    // ========================= UNREAD COUNT =========================
-    public long getUnreadCount(String username) {
+    // ========================= FETCH BY CURSOR =========================
+    // Keyset page, newest first, no total count. The cursor is the
+    // (createdAt, id) of the last item returned, encoded so clients treat it as opaque.
+    public NotificationFeedDTO getMyNotificationFeed(Long userId, String before, int limit) {
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        int size = Math.min(Math.max(limit, 1), MAX_FEED_LIMIT);
+        Limit fetch = Limit.of(size + 1); // one extra tells us whether another page exists
+
+        List<Notification> rows;
+
+        if (before == null || before.isBlank()) {
+            rows = notificationRepository.findLatest(userId, fetch);
+        } else {
+            FeedCursor cursor = FeedCursor.decode(before);
+            rows = notificationRepository.findOlderThan(userId, cursor.createdAt(), cursor.id(), fetch);
+        }
+
+        boolean more = rows.size() > size;
+        List<Notification> page = more ? rows.subList(0, size) : rows;
 
-        return notificationRepository.countByRecipientAndReadFalse(user);
+        String next = null;
+        if (more) {
+            Notification last = page.get(page.size() - 1);
+            next = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new NotificationFeedDTO(page.stream().map(this::mapToDTO).toList(), next);
+    }
+
+    private record FeedCursor(Instant createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static FeedCursor decode(String value) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+                return new FeedCursor(
+                        Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                        Long.parseLong(parts[2])
+                );
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+
+    // ========================= REPLAY AFTER RECONNECT =========================
+    // Frames numbered after afterSeq from the in-memory buffer. Once those are gone,
+    // falls back to rows with activity after `since` (the createdAt of the last frame
+    // the client saw), or the latest rows when it has none.
+    public NotificationReplayDTO replay(Long userId, String username, long afterSeq, Instant since, int limit) {
+
+        List<WsNotificationDTO> buffered = replayBuffer.after(username, afterSeq);
+
+        if (buffered != null) {
+            long latest = buffered.isEmpty() ? afterSeq : buffered.get(buffered.size() - 1).getSeq();
+            return new NotificationReplayDTO(true, latest, false, buffered);
+        }
+
+        // Read first: anything numbered later is delivered live
+        long latest = replayBuffer.latest(username);
+
+        int size = Math.min(Math.max(limit, 1), MAX_FEED_LIMIT);
+        Limit fetch = Limit.of(size + 1);
+
+        List<Notification> rows = since != null
+                ? notificationRepository.findActiveSince(userId, since, fetch)
+                : notificationRepository.findLatest(userId, fetch);
+
+        boolean truncated = rows.size() > size;
+        List<Notification> page = new ArrayList<>(truncated ? rows.subList(0, size) : rows);
+        Collections.reverse(page); // oldest first, like the live stream
+
+        return new NotificationReplayDTO(
+                false,
+                latest,
+                truncated,
+                page.stream().map(WsNotificationSender::toPayload).toList()
+        );
+    }
+
+    // ========================= UNREAD COUNT =========================
+    // Served from memory once the user's counter is loaded
+    public long getUnreadCount(Long userId, String username) {
+        return unreadCounters.get(userId, username);
     }
 
     // ========================= MARK ONE AS READ =========================
@@ -75,22 +236,96 @@ public class NotificationService {
             throw new RuntimeException("Access denied");
         }
 
+        if (notification.isRead()) {
+            return;
+        }
+
         notification.setRead(true);
         notificationRepository.save(notification);
+        unreadCounters.read(notification.getRecipient(), 1);
     }
 
     // ========================= MARK ALL AS READ =========================
-    public void markAllAsRead(String username) {
+    // One UPDATE however many are unread
+    public int markAllAsRead(String username) {
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        int updated = notificationRepository.markAllRead(user);
+        unreadCounters.read(user, updated);
+
+        return updated;
+    }
+
+    // ========================= MARK SELECTED AS READ =========================
+    public int markAsRead(Collection<Long> notificationIds, String username) {
+
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
+        if (notificationIds.size() > MAX_IDS_PER_REQUEST) {
+            throw new RuntimeException("At most " + MAX_IDS_PER_REQUEST + " notification ids per request");
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Ids of other users' notifications simply match nothing
+        int updated = notificationRepository.markReadByIds(user, new HashSet<>(notificationIds));
+        unreadCounters.read(user, updated);
+
+        return updated;
+    }
+
+    // ========================= MARK READ UP TO WATERMARK =========================
+    // Everything up to and including the id (or created at or before the time)
+    public int markReadUpTo(Long maxId, Instant until, String username) {
+
+        if (maxId == null && until == null) {
+            throw new RuntimeException("Provide id or until");
+        }
+        if (maxId != null && until != null) {
+            throw new RuntimeException("Provide either id or until, not both");
+        }
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        notificationRepository
-                .findByRecipientAndReadFalse(user)
-                .forEach(n -> {
-                    n.setRead(true);
-                    notificationRepository.save(n);
-                });
+        int updated = maxId != null
+                ? notificationRepository.markReadUpToId(user, maxId)
+                : notificationRepository.markReadUpToTime(user, until);
+        unreadCounters.read(user, updated);
+
+        return updated;
+    }
+
+    // ========================= DIGEST =========================
+    // Unread activity in (since, until] grouped by type and project; null when there is none
+    public NotificationDigestDTO buildDigest(Long userId, Instant since, Instant until) {
+
+        List<NotificationDigestItemDTO> items = notificationRepository.summarizeUnread(userId, since, until)
+                .stream()
+                .map(line -> new NotificationDigestItemDTO(
+                        line.getType(),
+                        line.getProjectId(),
+                        line.getNotifications(),
+                        line.getEvents(),
+                        line.getLatestAt()
+                ))
+                .toList();
+
+        if (items.isEmpty()) {
+            return null;
+        }
+
+        return new NotificationDigestDTO(
+                since,
+                until,
+                items.stream().mapToLong(NotificationDigestItemDTO::getNotifications).sum(),
+                items.stream().mapToLong(NotificationDigestItemDTO::getEvents).sum(),
+                items
+        );
     }
 
     // ========================= DTO MAPPER =========================
@@ -104,6 +339,10 @@ public class NotificationService {
         dto.setTaskId(notification.getTaskId());
         dto.setRead(notification.isRead());
         dto.setCreatedAt(notification.getCreatedAt());
+        dto.setCount(notification.getCount());
+        dto.setLastOccurredAt(notification.getLastOccurredAt() != null
+                ? notification.getLastOccurredAt()
+                : notification.getCreatedAt());
 
         return dto;
     }
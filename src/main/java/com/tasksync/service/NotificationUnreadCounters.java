@@ -0,0 +1,190 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.User;
+import com.tasksync.repository.NotificationRepository;
+import com.tasksync.util.AfterCommit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unread notification counts per user, kept in memory for the badge.
+ * <p>
+ * A user's counter is loaded from the DB the first time it is read. After that,
+ * creates and mark-read operations adjust it once their transaction commits,
+ * and every change is pushed to {@code /user/queue/unread-count}. Counters for
+ * users who have not asked in a while are dropped.
+ * <p>
+ * Another node's writes, or a write racing the first load, can leave a counter
+ * off for a while. The periodic reconciliation re-counts every cached user in
+ * batches and corrects it, unless the counter moved while the batch was counted;
+ * that one waits for the next run rather than going back to a stale value.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationUnreadCounters {
+
+    private static final int RECONCILE_BATCH = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final WsNotificationSender wsNotificationSender;
+
+    @Value("${app.notifications.unread.idle-ms:3600000}")
+    private long idleMs;
+
+    // Boxed keys on purpose: there is no primitive-keyed concurrent map on the classpath, and
+    // callers already hold ids as Long (entity ids), so lookups allocate nothing
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    // ========================= READ =========================
+    public long get(Long userId, String username) {
+
+        Counter counter = counters.get(userId);
+
+        if (counter == null) {
+            // Loaded outside the map lock; a concurrent first read keeps whichever landed first
+            long unread = notificationRepository.countByRecipientIdAndReadFalse(userId);
+            Counter loaded = new Counter(username, unread);
+            counter = counters.putIfAbsent(userId, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+
+        counter.lastAccess = System.currentTimeMillis();
+        return counter.value();
+    }
+
+    // ========================= ADJUST (AFTER COMMIT) =========================
+    public void added(User recipient, int count) {
+        AfterCommit.run(() -> adjust(recipient.getId(), count));
+    }
+
+    public void added(Map<User, Integer> countsByRecipient) {
+        AfterCommit.run(() -> countsByRecipient.forEach((user, count) -> adjust(user.getId(), count)));
+    }
+
+    public void read(User recipient, int count) {
+        if (count > 0) {
+            AfterCommit.run(() -> adjust(recipient.getId(), -count));
+        }
+    }
+
+    // Users with no counter yet are skipped; their first read counts from the DB
+    private void adjust(Long userId, int delta) {
+
+        Counter counter = counters.get(userId);
+
+        if (counter == null) {
+            return;
+        }
+
+        push(counter, counter.adjust(delta));
+    }
+
+    // ========================= RECONCILE =========================
+    @Scheduled(fixedDelayString = "${app.notifications.unread.reconcile-ms:300000}")
+    public void reconcile() {
+
+        long idleBefore = System.currentTimeMillis() - idleMs;
+        counters.values().removeIf(c -> c.lastAccess < idleBefore);
+
+        List<Long> ids = new ArrayList<>(counters.keySet());
+        int corrected = 0;
+
+        for (int from = 0; from < ids.size(); from += RECONCILE_BATCH) {
+
+            List<Long> batch = ids.subList(from, Math.min(from + RECONCILE_BATCH, ids.size()));
+            Map<Long, Long> actual = new HashMap<>();
+
+            // Versions before the COUNT; a counter adjusted meanwhile may be ahead of it
+            Map<Long, Long> seen = new HashMap<>();
+            for (Long id : batch) {
+                Counter counter = counters.get(id);
+                if (counter != null) {
+                    seen.put(id, counter.version());
+                }
+            }
+
+            notificationRepository.countUnreadByRecipientIds(batch)
+                    .forEach(c -> actual.put(c.getRecipientId(), c.getUnread()));
+
+            for (Long id : batch) {
+
+                Counter counter = counters.get(id);
+                long unread = actual.getOrDefault(id, 0L);
+
+                if (counter != null && seen.containsKey(id) && counter.correct(unread, seen.get(id))) {
+                    corrected++;
+                    push(counter, unread);
+                }
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("Unread counters reconciled: {} of {} corrected", corrected, ids.size());
+        }
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    // ========================= HELPERS =========================
+    private void push(Counter counter, long unread) {
+        try {
+            wsNotificationSender.sendUnreadCount(counter.username, unread);
+        } catch (Exception e) {
+            log.debug("Unread count push to {} failed: {}", counter.username, e.getMessage());
+        }
+    }
+
+    private static final class Counter {
+
+        final String username;
+        volatile long lastAccess;
+
+        // Guarded by this; version moves on every adjustment
+        private long value;
+        private long version;
+
+        Counter(String username, long unread) {
+            this.username = username;
+            this.value = unread;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        synchronized long value() {
+            return value;
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized long adjust(int delta) {
+            value = Math.max(0, value + delta);
+            version++;
+            return value;
+        }
+
+        // Takes a recount only if no adjustment landed since seenVersion was read
+        synchronized boolean correct(long unread, long seenVersion) {
+            if (version != seenVersion || value == unread) {
+                return false;
+            }
+            value = unread;
+            return true;
+        }
+    }
+}
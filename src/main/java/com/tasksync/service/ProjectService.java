@@ -4,17 +4,29 @@ import com.tasksync.dto.*;
 import com.tasksync.entity.*;
 import com.tasksync.repository.ProjectActivityRepository;
 import com.tasksync.repository.ProjectRepository;
+import com.tasksync.repository.TaskRepository;
 import com.tasksync.repository.UserRepository;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowEventPublisher;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -28,7 +40,20 @@ public class ProjectService {
     private final UserRepository userRepository;
     private final ProjectActivityRepository projectActivityRepository;
     private final NotificationService notificationService;
-    private final WorkflowEngine workflowEngine;
+    private final WorkflowEventPublisher workflowEventPublisher;
+    private final TaskRepository taskRepository;
+    private final SlaCalendarService slaCalendarService;
+    private final MeterRegistry meterRegistry;
+
+    private Timer slaAtRiskTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        slaAtRiskTimer = Timer.builder("projects.sla.at_risk")
+                .description("Time to build one SLA at-risk forecast")
+                .publishPercentiles(0.99)
+                .register(meterRegistry);
+    }
 
     // ========================= CREATE PROJECT =========================
     public ProjectResponseDTO createProject(CreateProjectRequest request, String creatorUsername) {
@@ -133,8 +158,8 @@ public class ProjectService {
 
         projectRepository.save(project);
 
-        notificationService.createNotification(
-                userToAdd,
+        notificationService.createNotifications(
+                List.of(userToAdd),
                 NotificationType.PROJECT_MEMBER_ADDED,
                 "You were added to project: " + project.getName(),
                 project.getId(),
@@ -166,8 +191,8 @@ public class ProjectService {
 
         projectRepository.save(project);
 
-        notificationService.createNotification(
-                userToRemove,
+        notificationService.createNotifications(
+                List.of(userToRemove),
                 NotificationType.PROJECT_MEMBER_REMOVED,
                 "You were removed from project: " + project.getName(),
                 project.getId(),
@@ -178,6 +203,7 @@ public class ProjectService {
     }
 
     // ========================= ARCHIVE PROJECT =========================
+    @Transactional
     public String archiveProject(Long projectId, String username, String role) {
 
         Project project = authorizeProjectAccess(projectId, username, role);
@@ -196,23 +222,17 @@ public class ProjectService {
 
         projectRepository.save(project);
 
-        Map<String, Object> context = new HashMap<>();
-        context.put("project", project);
-
-        workflowEngine.handleEvent(
-                WorkflowEventType.PROJECT_ARCHIVED,
-                context
+        workflowEventPublisher.publish(
+                WorkflowContext.forProject(WorkflowEventType.PROJECT_ARCHIVED, project)
         );
 
-        for (User member : project.getMembers()) {
-            notificationService.createNotification(
-                    member,
-                    NotificationType.PROJECT_ARCHIVED,
-                    "Project archived: " + project.getName(),
-                    project.getId(),
-                    null
-            );
-        }
+        notificationService.createNotifications(
+                project.getMembers(),
+                NotificationType.PROJECT_ARCHIVED,
+                "Project archived: " + project.getName(),
+                project.getId(),
+                null
+        );
 
         return "Project archived";
     }
@@ -259,6 +279,60 @@ public class ProjectService {
                 .toList();
     }
 
+    // ========================= SLA AT RISK =========================
+    // Open tasks whose SLA deadline falls within the next N hours. Counts and the
+    // first page are three range reads on the (project_id, sla_deadline) index.
+    @Transactional(readOnly = true)
+    public SlaAtRiskDTO getSlaAtRisk(
+            Long projectId,
+            int withinHours,
+            int size,
+            String username,
+            String role
+    ) {
+
+        if (withinHours < 1 || withinHours > 720) {
+            throw new RuntimeException("withinHours must be between 1 and 720");
+        }
+
+        long start = System.nanoTime();
+
+        Project project = authorizeProjectAccess(projectId, username, role);
+
+        Instant now = Instant.now();
+        LocalDateTime from = LocalDateTime.ofInstant(now, ZoneId.systemDefault());
+        LocalDateTime to = from.plusHours(withinHours);
+
+        Map<String, Long> byAssignee = new LinkedHashMap<>();
+        taskRepository.countSlaAtRiskByAssignee(project, from, to).forEach(c ->
+                byAssignee.merge(c.getUsername() != null ? c.getUsername() : "unassigned", c.getTasks(), Long::sum));
+
+        // Tasks without a priority count as MEDIUM, next to the MEDIUM group
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        taskRepository.countSlaAtRiskByPriority(project, from, to).forEach(c ->
+                byPriority.merge(c.getPriority() != null ? c.getPriority() : TaskPriority.MEDIUM, c.getTasks(), Long::sum));
+
+        long total = byAssignee.values().stream().mapToLong(Long::longValue).sum();
+
+        List<SlaAtRiskTaskDTO> tasks = total == 0 ? List.of() : taskRepository
+                .findSlaAtRisk(project, from, to, Limit.of(Math.min(Math.max(size, 1), 100)))
+                .stream()
+                .map(t -> new SlaAtRiskTaskDTO(
+                        t.getId(),
+                        t.getTitle(),
+                        t.getStatus(),
+                        t.getPriority(),
+                        t.getAssignee() != null ? t.getAssignee().getUsername() : null,
+                        t.getSlaDeadline(),
+                        slaCalendarService.remainingMinutes(project, now, t.getSlaDeadline())
+                ))
+                .toList();
+
+        slaAtRiskTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return new SlaAtRiskDTO(project.getId(), from, to, total, byAssignee, byPriority, tasks);
+    }
+
     // ========================= PAGINATED LIST =========================
     public Page<ProjectResponseDTO> getProjectsPaged(
             String username,
@@ -0,0 +1,268 @@
+package com.tasksync.service;
+
+import com.tasksync.dto.SlaCalendarDTO;
+import com.tasksync.dto.SlaCalendarRequest;
+import com.tasksync.entity.Project;
+import com.tasksync.entity.SlaCalendar;
+import com.tasksync.repository.ProjectRepository;
+import com.tasksync.repository.SlaCalendarRepository;
+import com.tasksync.util.AfterCommit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SLA clock for tasks.
+ * <p>
+ * Projects without a calendar keep the round-the-clock SLA. Projects with one
+ * count business hours through a {@link CompiledSlaCalendar}, cached per calendar
+ * and recompiled when its version changes. Local edits evict at once; edits made
+ * on another node are picked up when the cached version is next checked, at most
+ * every {@code app.sla.calendar.refresh-ms}.
+ * <p>
+ * {@code slaDeadline} is stored as a {@link LocalDateTime} in the server zone.
+ * Every deadline is computed from an {@link Instant} and converted here, in one
+ * place.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlaCalendarService {
+
+    private final SlaCalendarRepository slaCalendarRepository;
+    private final ProjectRepository projectRepository;
+
+    @Value("${app.sla.calendar.horizon-days:1100}")
+    private int horizonDays;
+
+    @Value("${app.sla.calendar.refresh-ms:60000}")
+    private long refreshMs;
+
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+
+    // ========================= DEADLINES =========================
+    public LocalDateTime deadline(Project project, Instant from, int slaHours) {
+
+        long workSeconds = slaHours * 3600L;
+        Long calendarId = calendarIdOf(project);
+
+        if (calendarId == null) {
+            return toServerTime(from.plusSeconds(workSeconds));
+        }
+
+        CompiledSlaCalendar calendar = compiledFor(calendarId, from);
+        Instant due = calendar.plusWorkingSeconds(from, workSeconds);
+
+        if (due == null) {
+            // A table compiled a while ago can cover from yet end early; one starting at from reaches further
+            due = compile(calendarId, from, System.currentTimeMillis()).plusWorkingSeconds(from, workSeconds);
+        }
+
+        if (due == null) {
+            throw new RuntimeException("SLA of " + slaHours + " business hours exceeds the calendar horizon");
+        }
+
+        return toServerTime(due);
+    }
+
+    // Working minutes left until the deadline, negative once it has passed
+    public long remainingMinutes(Project project, Instant now, LocalDateTime deadline) {
+
+        Instant due = deadline.atZone(ZoneId.systemDefault()).toInstant();
+        Long calendarId = calendarIdOf(project);
+
+        if (calendarId == null) {
+            return Duration.between(now, due).toMinutes();
+        }
+
+        CompiledSlaCalendar calendar = compiledFor(calendarId, now);
+
+        if (!calendar.covers(due)) {
+            return Duration.between(now, due).toMinutes();
+        }
+
+        return calendar.workingSecondsBetween(now, due) / 60;
+    }
+
+    private static LocalDateTime toServerTime(Instant instant) {
+        return instant.atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    // The proxy id is read without initialising the calendar
+    private static Long calendarIdOf(Project project) {
+        return project != null && project.getSlaCalendar() != null ? project.getSlaCalendar().getId() : null;
+    }
+
+    // ========================= COMPILED TABLE CACHE =========================
+    private CompiledSlaCalendar compiledFor(Long calendarId, Instant from) {
+
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(calendarId);
+
+        if (cached != null && now - cached.checkedAt > refreshMs) {
+            long version = slaCalendarRepository.findVersionById(calendarId).orElse(-1L);
+            cached = version == cached.compiled.version() ? cached.touch(now) : null;
+        }
+
+        if (cached != null && cached.compiled.covers(from)) {
+            return cached.compiled;
+        }
+
+        return compile(calendarId, from, now);
+    }
+
+    private CompiledSlaCalendar compile(Long calendarId, Instant from, long now) {
+
+        SlaCalendar calendar = slaCalendarRepository.findCompleteById(calendarId)
+                .orElseThrow(() -> new RuntimeException("SLA calendar not found"));
+
+        // Start a week back so recent start times are covered too
+        LocalDate firstDay = from.atZone(ZoneId.of(calendar.getZoneId())).toLocalDate().minusDays(7);
+        CompiledSlaCalendar compiled = CompiledSlaCalendar.compile(calendar, firstDay, horizonDays);
+
+        cache.put(calendarId, new Cached(compiled, now));
+        log.info("SLA calendar {} v{} compiled from {} for {} days", calendarId, compiled.version(), firstDay, horizonDays);
+
+        return compiled;
+    }
+
+    private static final class Cached {
+
+        final CompiledSlaCalendar compiled;
+        volatile long checkedAt;
+
+        Cached(CompiledSlaCalendar compiled, long checkedAt) {
+            this.compiled = compiled;
+            this.checkedAt = checkedAt;
+        }
+
+        Cached touch(long now) {
+            checkedAt = now;
+            return this;
+        }
+    }
+
+    // ========================= CALENDAR ADMIN =========================
+    @Transactional
+    public SlaCalendarDTO createCalendar(SlaCalendarRequest request) {
+
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new RuntimeException("Calendar name is required");
+        }
+        if (slaCalendarRepository.existsByName(request.getName())) {
+            throw new RuntimeException("SLA calendar name already exists");
+        }
+
+        SlaCalendar calendar = new SlaCalendar();
+        calendar.setName(request.getName());
+        apply(calendar, request);
+
+        return mapToDTO(slaCalendarRepository.save(calendar));
+    }
+
+    @Transactional
+    public SlaCalendarDTO updateCalendar(Long calendarId, SlaCalendarRequest request) {
+
+        SlaCalendar calendar = slaCalendarRepository.findCompleteById(calendarId)
+                .orElseThrow(() -> new RuntimeException("SLA calendar not found"));
+
+        if (request.getName() != null && !request.getName().isBlank()) {
+            calendar.setName(request.getName());
+        }
+        apply(calendar, request);
+
+        SlaCalendar saved = slaCalendarRepository.saveAndFlush(calendar);
+
+        // Evicting before commit would let a concurrent read re-cache the old rows
+        AfterCommit.run(() -> cache.remove(calendarId));
+
+        // Deadlines already set keep their value until the next SLA reset
+        return mapToDTO(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SlaCalendarDTO> getCalendars() {
+        return slaCalendarRepository.findAllComplete()
+                .stream()
+                .map(this::mapToDTO)
+                .toList();
+    }
+
+    @Transactional
+    public String assignCalendar(Long projectId, Long calendarId) {
+
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+
+        SlaCalendar calendar = calendarId == null ? null : slaCalendarRepository.findById(calendarId)
+                .orElseThrow(() -> new RuntimeException("SLA calendar not found"));
+
+        project.setSlaCalendar(calendar);
+        project.setUpdatedAt(Instant.now());
+        projectRepository.save(project);
+
+        return calendar == null ? "SLA calendar removed from project" : "SLA calendar assigned to project";
+    }
+
+    private void apply(SlaCalendar calendar, SlaCalendarRequest request) {
+
+        if (request.getZoneId() != null) {
+            try {
+                calendar.setZoneId(ZoneId.of(request.getZoneId()).getId());
+            } catch (DateTimeException e) {
+                throw new RuntimeException("Invalid zone id: " + request.getZoneId());
+            }
+        }
+
+        if (request.getWorkingDays() != null) {
+            if (request.getWorkingDays().isEmpty()) {
+                throw new RuntimeException("At least one working day is required");
+            }
+            calendar.setWorkingDays(EnumSet.copyOf(request.getWorkingDays()));
+        }
+
+        if (request.getWorkStart() != null) {
+            calendar.setWorkStart(request.getWorkStart());
+        }
+        if (request.getWorkEnd() != null) {
+            calendar.setWorkEnd(request.getWorkEnd());
+        }
+        if (!calendar.getWorkEnd().isAfter(calendar.getWorkStart())) {
+            throw new RuntimeException("Work end must be after work start");
+        }
+
+        if (request.getHolidays() != null) {
+            calendar.setHolidays(new HashSet<>(request.getHolidays()));
+        }
+
+        calendar.setUpdatedAt(Instant.now());
+    }
+
+    private SlaCalendarDTO mapToDTO(SlaCalendar calendar) {
+        return new SlaCalendarDTO(
+                calendar.getId(),
+                calendar.getName(),
+                calendar.getZoneId(),
+                calendar.getWorkingDays().stream().sorted().toList(),
+                calendar.getWorkStart(),
+                calendar.getWorkEnd(),
+                calendar.getHolidays().stream().sorted().toList(),
+                calendar.getVersion()
+        );
+    }
+}
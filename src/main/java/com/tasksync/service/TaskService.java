@@ -6,14 +6,16 @@ import com.tasksync.repository.ProjectRepository;
 import com.tasksync.repository.TaskActivityRepository;
 import com.tasksync.repository.TaskRepository;
 import com.tasksync.repository.UserRepository;
+import com.tasksync.scheduler.SlaDeadlineIndex;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowEventPublisher;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,9 +29,12 @@ public class TaskService {
     private final UserRepository userRepository;
     private final TaskActivityRepository taskActivityRepository;
     private final NotificationService notificationService;
-    private final WorkflowEngine workflowEngine;
+    private final WorkflowEventPublisher workflowEventPublisher;
+    private final SlaDeadlineIndex slaDeadlineIndex;
+    private final SlaCalendarService slaCalendarService;
 
     // ========================= CREATE TASK =========================
+    @Transactional
     public TaskResponseDTO createTask(
             CreateTaskRequest request,
             String username,
@@ -63,14 +68,10 @@ public class TaskService {
         initializeSla(task);
 
         taskRepository.save(task);
+        slaDeadlineIndex.track(task);
 
-        Map<String, Object> context = new HashMap<>();
-        context.put("task", task);
-        context.put("project", project);
-
-        workflowEngine.handleEvent(
-                WorkflowEventType.TASK_CREATED,
-                context
+        workflowEventPublisher.publish(
+                WorkflowContext.forTask(WorkflowEventType.TASK_CREATED, task)
         );
 
         // ---- Activity + Progress ----
@@ -82,6 +83,7 @@ public class TaskService {
     }
 
     // ========================= UPDATE TASK =========================
+    @Transactional
     public TaskResponseDTO updateTask(
             Long taskId,
             UpdateTaskRequest request,
@@ -103,13 +105,8 @@ public class TaskService {
         task.setUpdatedAt(Instant.now());
         taskRepository.save(task);
 
-        Map<String, Object> context = new HashMap<>();
-        context.put("task", task);
-        context.put("project", task.getProject());
-
-        workflowEngine.handleEvent(
-                WorkflowEventType.TASK_UPDATED,
-                context
+        workflowEventPublisher.publish(
+                WorkflowContext.forTask(WorkflowEventType.TASK_UPDATED, task)
         );
 
         User actor = userRepository.findByUsername(username).orElseThrow();
@@ -119,6 +116,7 @@ public class TaskService {
     }
 
     // ========================= ASSIGN TASK =========================
+    @Transactional
     public TaskResponseDTO assignTask(
             Long taskId,
             Long assigneeId,
@@ -143,14 +141,10 @@ public class TaskService {
         resetSla(task);
         task.setUpdatedAt(Instant.now());
         taskRepository.save(task);
+        slaDeadlineIndex.track(task);
 
-        Map<String, Object> context = new HashMap<>();
-        context.put("task", task);
-        context.put("project", task.getProject());
-
-        workflowEngine.handleEvent(
-                WorkflowEventType.TASK_ASSIGNED,
-                context
+        workflowEventPublisher.publish(
+                WorkflowContext.forTask(WorkflowEventType.TASK_ASSIGNED, task)
         );
 
         notificationService.createNotification(
@@ -168,6 +162,7 @@ public class TaskService {
     }
 
     // ========================= CHANGE STATUS =========================
+    @Transactional
     public TaskResponseDTO changeStatus(
             Long taskId,
             TaskStatus status,
@@ -200,16 +195,10 @@ public class TaskService {
         task.setStatus(status);
         task.setUpdatedAt(Instant.now());
         taskRepository.save(task);
+        slaDeadlineIndex.track(task);
 
-        Map<String, Object> context = new HashMap<>();
-        context.put("task", task);
-        context.put("project", task.getProject());
-        context.put("fromStatus", oldStatus.name());
-        context.put("toStatus", status.name());
-
-        workflowEngine.handleEvent(
-                WorkflowEventType.TASK_STATUS_CHANGED,
-                context
+        workflowEventPublisher.publish(
+                WorkflowContext.forStatusChange(task, oldStatus, status)
         );
 
         if (!task.getCreatedBy().equals(user)) {
@@ -346,10 +335,7 @@ public class TaskService {
         }
 
         task.setSlaDeadline(
-                task.getCreatedAt()
-                        .plusSeconds(task.getSlaHours() * 3600L)
-                        .atZone(java.time.ZoneId.systemDefault())
-                        .toLocalDateTime()
+                slaCalendarService.deadline(task.getProject(), task.getCreatedAt(), task.getSlaHours())
         );
 
         task.setSlaBreached(false);
@@ -362,10 +348,7 @@ public class TaskService {
         }
 
         task.setSlaDeadline(
-                Instant.now()
-                        .plusSeconds(task.getSlaHours() * 3600L)
-                        .atZone(java.time.ZoneId.systemDefault())
-                        .toLocalDateTime()
+                slaCalendarService.deadline(task.getProject(), Instant.now(), task.getSlaHours())
         );
 
         task.setSlaBreached(false);
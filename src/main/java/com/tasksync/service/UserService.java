@@ -3,6 +3,7 @@ package com.tasksync.service;
 import com.tasksync.dto.CreateUserRequest;
 import com.tasksync.dto.UpdateUserRequest;
 import com.tasksync.dto.UserResponseDTO;
+import com.tasksync.entity.NotificationDeliveryMode;
 import com.tasksync.entity.Role;
 import com.tasksync.entity.User;
 import com.tasksync.repository.RoleRepository;
@@ -12,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -84,6 +86,26 @@ public class UserService {
         return active ? "User activated" : "User deactivated";
     }
 
+    // ---------- Notification delivery mode (SELF) ----------
+    public String setNotificationMode(String username, NotificationDeliveryMode mode) {
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // The first digest covers what arrives from now on, not the whole backlog
+        if (mode == NotificationDeliveryMode.DIGEST && !user.prefersDigest()) {
+            user.setLastDigestAt(Instant.now());
+        }
+
+        user.setNotificationMode(mode);
+        user.setUpdatedAt(Instant.now());
+        userRepository.save(user);
+
+        return mode == NotificationDeliveryMode.DIGEST
+                ? "Notifications will be delivered as a digest"
+                : "Notifications will be delivered immediately";
+    }
+
     // ---------- Create user (ADMIN) ----------
     public UserResponseDTO createUser(CreateUserRequest request) {
 
@@ -1,17 +1,21 @@
 package com.tasksync.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tasksync.entity.*;
 import com.tasksync.repository.TaskRepository;
+import com.tasksync.scheduler.SlaDeadlineIndex;
+import com.tasksync.workflow.ActionCost;
+import com.tasksync.workflow.ActionPlan;
+import com.tasksync.workflow.CompiledWorkflowRule;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowRuleCompiler;
+import com.tasksync.workflow.WorkflowUnitOfWork;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.List;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -20,112 +24,197 @@ public class WorkflowActionExecutor {
 
     private final NotificationService notificationService;
     private final TaskRepository taskRepository;
+    private final WorkflowRuleCompiler workflowRuleCompiler;
+    private final SlaDeadlineIndex slaDeadlineIndex;
+    private final SlaCalendarService slaCalendarService;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // ========================= EXECUTE ACTIONS (RAW JSON) =========================
+    public void execute(String actionsJson, WorkflowContext context) {
 
-    // ========================= EXECUTE ACTIONS =========================
-    public void execute(String actionsJson, Map<String, Object> context) {
+        try {
+            execute(workflowRuleCompiler.compileActions(actionsJson), context);
+        } catch (Exception e) {
+            log.error("Action execution failed", e);
+        }
+    }
+
+    // ========================= EXECUTE ACTIONS (SINGLE RULE) =========================
+    public void execute(ActionPlan actions, WorkflowContext context) {
 
         try {
-            Map<String, Object> actions =
-                    objectMapper.readValue(actionsJson, new TypeReference<>() {});
+            WorkflowUnitOfWork unitOfWork = new WorkflowUnitOfWork();
+            execute(actions, context, unitOfWork);
+            flush(unitOfWork);
+        } catch (Exception e) {
+            log.error("Action execution failed", e);
+        }
+    }
 
-            // ---------- NOTIFY ----------
-            if (actions.containsKey("notify")) {
-                List<String> targets = (List<String>) actions.get("notify");
-                notifyTargets(targets, context);
-            }
+    // ========================= EXECUTE RULE (COLLECT ONLY) =========================
+    // Immediate actions are collected, delayed ones become timer requests
+    public void execute(CompiledWorkflowRule rule, WorkflowContext context, WorkflowUnitOfWork unitOfWork) {
+
+        execute(rule.actions(), context, unitOfWork);
 
-            // ---------- SET PRIORITY ----------
-            if (actions.containsKey("setPriority")) {
-                setTaskPriority((String) actions.get("setPriority"), context);
+        if (rule.actions().delayed() != null) {
+            if (context.taskId() == WorkflowContext.NONE) {
+                log.warn("Workflow rule {} has delayed actions but {} has no task", rule.id(), context.eventType());
+                return;
             }
+            unitOfWork.addTimer(new WorkflowUnitOfWork.TimerRequest(rule.id(), context.taskId(), rule.actions().delayed()));
+        }
+    }
+
+    // ========================= EXECUTE ACTIONS (COLLECT ONLY) =========================
+    // Failures propagate so the engine can count them per rule
+    public void execute(ActionPlan actions, WorkflowContext context, WorkflowUnitOfWork unitOfWork) {
+
+        // ---------- NOTIFY ----------
+        if (!actions.notifyTargets().isEmpty()) {
+            notifyTargets(actions.notifyTargets(), context, unitOfWork);
+        }
+
+        // ---------- SET PRIORITY ----------
+        if (actions.setPriority() != null) {
+            setTaskPriority(actions.setPriority(), context, unitOfWork);
+        }
+
+        // ---------- RESET SLA ----------
+        if (actions.resetSla()) {
+            resetSla(context, unitOfWork);
+        }
+
+        // ---------- ESCALATE ----------
+        if (actions.escalate()) {
+            escalate(context, unitOfWork);
+        }
+    }
 
-            // ---------- RESET SLA ----------
-            if (Boolean.TRUE.equals(actions.get("resetSla"))) {
-                resetSla(context);
+    // ========================= FLUSH =========================
+    public void flush(WorkflowUnitOfWork unitOfWork) {
+
+        if (!unitOfWork.getDirtyTasks().isEmpty()) {
+            taskRepository.saveAll(unitOfWork.getDirtyTasks());
+
+            for (Task task : unitOfWork.getDirtyTasks()) {
+                if (task.getSlaHours() != null) {
+                    slaDeadlineIndex.track(task);
+                }
             }
+        }
+
+        if (!unitOfWork.getNotifications().isEmpty()) {
+            notificationService.createNotifications(unitOfWork.getNotifications());
+        }
+    }
 
-            // ---------- ESCALATE ----------
-            if (Boolean.TRUE.equals(actions.get("escalate"))) {
-                escalate(context);
+    // ========================= ESTIMATE (NO SIDE EFFECTS) =========================
+    // Used by shadow evaluation and the rule simulator
+    public ActionCost estimate(ActionPlan actions, WorkflowContext context) {
+
+        Task task = context.task();
+        if (task == null || actions.isEmpty()) {
+            return ActionCost.NONE;
+        }
+
+        int notifications = 0;
+        for (String target : actions.notifyTargets()) {
+            if (resolveTarget(target, task) != null) {
+                notifications++;
             }
+        }
 
-        } catch (Exception e) {
-            log.error("Action execution failed", e);
+        boolean escalates = actions.escalate() && !task.isEscalated();
+        if (escalates && task.getProject().getManager() != null) {
+            notifications++;
         }
+
+        boolean writes = actions.setPriority() != null
+                || (actions.resetSla() && task.getSlaHours() != null)
+                || escalates;
+
+        return new ActionCost(notifications, writes ? 1 : 0);
     }
 
     // ========================= HELPERS =========================
 
-    private void notifyTargets(List<String> targets, Map<String, Object> context) {
+    private User resolveTarget(String target, Task task) {
+
+        return switch (target) {
+            case "ASSIGNEE" -> task.getAssignee();
+            case "CREATOR" -> task.getCreatedBy();
+            case "MANAGER" -> task.getProject().getManager();
+            default -> null;
+        };
+    }
+
+    private void notifyTargets(List<String> targets, WorkflowContext context, WorkflowUnitOfWork unitOfWork) {
 
-        Task task = (Task) context.get("task");
+        Task task = context.task();
 
         for (String target : targets) {
 
-            User recipient = switch (target) {
-                case "ASSIGNEE" -> task.getAssignee();
-                case "CREATOR" -> task.getCreatedBy();
-                case "MANAGER" -> task.getProject().getManager();
-                default -> null;
-            };
+            User recipient = resolveTarget(target, task);
 
             if (recipient != null) {
-                notificationService.createNotification(
+                unitOfWork.addNotification(notificationService.buildNotification(
                         recipient,
                         NotificationType.TASK_STATUS_CHANGED,
                         "Workflow triggered on task: " + task.getTitle(),
                         task.getProject().getId(),
                         task.getId()
-                );
+                ));
             }
         }
     }
 
-    private void setTaskPriority(String priority, Map<String, Object> context) {
+    private void setTaskPriority(TaskPriority priority, WorkflowContext context, WorkflowUnitOfWork unitOfWork) {
 
-        Task task = (Task) context.get("task");
-        task.setPriority(TaskPriority.valueOf(priority));
-        task.setUpdatedAt(java.time.Instant.now());
+        Task task = context.task();
+        task.setPriority(priority);
+        task.setUpdatedAt(Instant.now());
 
-        taskRepository.save(task);
+        unitOfWork.markDirty(task);
 
         log.info("Workflow set task {} priority to {}", task.getId(), priority);
     }
 
-    private void resetSla(Map<String, Object> context) {
+    private void resetSla(WorkflowContext context, WorkflowUnitOfWork unitOfWork) {
 
-        Task task = (Task) context.get("task");
+        Task task = context.task();
 
         if (task.getSlaHours() != null) {
             task.setSlaBreached(false);
             task.setEscalated(false);
             task.setSlaDeadline(
-                    LocalDateTime.now().plusHours(task.getSlaHours())
+                    slaCalendarService.deadline(task.getProject(), Instant.now(), task.getSlaHours())
             );
 
-            taskRepository.save(task);
+            unitOfWork.markDirty(task);
 
             log.info("Workflow reset SLA for task {}", task.getId());
         }
     }
 
-    private void escalate(Map<String, Object> context) {
+    private void escalate(WorkflowContext context, WorkflowUnitOfWork unitOfWork) {
 
-        Task task = (Task) context.get("task");
+        Task task = context.task();
 
         if (!task.isEscalated()) {
             task.setEscalated(true);
-            taskRepository.save(task);
-
-            notificationService.createNotification(
-                    task.getProject().getManager(),
-                    NotificationType.SLA_ESCALATED,
-                    "Workflow escalation for task: " + task.getTitle(),
-                    task.getProject().getId(),
-                    task.getId()
-            );
+            unitOfWork.markDirty(task);
+
+            User manager = task.getProject().getManager();
+
+            if (manager != null) {
+                unitOfWork.addNotification(notificationService.buildNotification(
+                        manager,
+                        NotificationType.SLA_ESCALATED,
+                        "Workflow escalation for task: " + task.getTitle(),
+                        task.getProject().getId(),
+                        task.getId()
+                ));
+            }
         }
     }
 }
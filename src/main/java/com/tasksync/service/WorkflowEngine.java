@@ -1,90 +1,280 @@
 package com.tasksync.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasksync.dto.WorkflowRuleIndexDTO;
+import com.tasksync.dto.WorkflowRuleMetricsDTO;
+import com.tasksync.dto.WorkflowRulesStatusDTO;
+import com.tasksync.dto.WorkflowShadowRuleDTO;
 import com.tasksync.entity.WorkflowEventType;
-import com.tasksync.entity.WorkflowRule;
-import com.tasksync.repository.WorkflowRuleRepository;
+import com.tasksync.workflow.ActionCost;
+import com.tasksync.workflow.CompiledWorkflowRule;
+import com.tasksync.workflow.RuleIndex;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowEventResult;
+import com.tasksync.workflow.WorkflowRuleMetrics;
+import com.tasksync.workflow.WorkflowRuleRegistry;
+import com.tasksync.workflow.WorkflowUnitOfWork;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WorkflowEngine {
 
-    private final WorkflowRuleRepository workflowRuleRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WorkflowRuleRegistry workflowRuleRegistry;
     private final WorkflowActionExecutor workflowActionExecutor;
+    private final WorkflowRuleMetrics workflowRuleMetrics;
+    private final WorkflowTimerService workflowTimerService;
+    private final MeterRegistry meterRegistry;
+
+    // Evaluate disabled rules too, recording what they would have done
+    @Value("${app.workflow.rules.shadow:false}")
+    private boolean shadowEnabled;
+
+    private final Map<WorkflowEventType, EventStats> stats = new EnumMap<>(WorkflowEventType.class);
+
+    @PostConstruct
+    void registerMetrics() {
+
+        for (WorkflowEventType type : WorkflowEventType.values()) {
+            stats.put(type, new EventStats(
+                    DistributionSummary.builder("workflow.rules.evaluated")
+                            .description("Rules evaluated per event after index lookup")
+                            .tag("eventType", type.name())
+                            .register(meterRegistry),
+                    DistributionSummary.builder("workflow.flush.task.writes")
+                            .description("Task rows saved per event after coalescing")
+                            .tag("eventType", type.name())
+                            .register(meterRegistry),
+                    DistributionSummary.builder("workflow.flush.notifications")
+                            .description("Notifications created per event")
+                            .tag("eventType", type.name())
+                            .register(meterRegistry)
+            ));
+        }
+    }
 
     // ========================= EVENT ENTRY POINT =========================
-    public void handleEvent(
-            WorkflowEventType eventType,
-            Map<String, Object> context
-    ) {
+    public WorkflowEventResult handleEvent(WorkflowContext context) {
 
-        List<WorkflowRule> rules =
-                workflowRuleRepository.findByEventTypeAndEnabledTrue(eventType);
+        WorkflowEventType eventType = context.eventType();
 
-        for (WorkflowRule rule : rules) {
+        // ---- Status moved on: drop delayed actions whose guard no longer holds ----
+        if (eventType == WorkflowEventType.TASK_STATUS_CHANGED
+                && context.taskId() != WorkflowContext.NONE
+                && context.toStatus() != null) {
             try {
-                if (conditionsMatch(rule.getConditionsJson(), context)) {
-                    executeActions(rule.getActionsJson(), context);
-                }
+                workflowTimerService.onStatusChange(context.taskId(), context.toStatus());
             } catch (Exception e) {
-                log.error("Workflow rule {} failed: {}", rule.getId(), e.getMessage());
+                log.error("Cancelling workflow timers for task {} failed: {}", context.taskId(), e.getMessage());
             }
         }
-    }
 
-    // ========================= CONDITIONS =========================
-    private boolean conditionsMatch(
-            String conditionsJson,
-            Map<String, Object> context
-    ) {
+        List<CompiledWorkflowRule> rules = workflowRuleRegistry.indexFor(eventType).candidates(context);
+        WorkflowUnitOfWork unitOfWork = new WorkflowUnitOfWork();
+        int matched = 0;
+        int failed = 0;
+        boolean flushFailed = false;
 
-        if (conditionsJson == null || conditionsJson.isBlank()) {
-            return true; // No conditions = always match
-        }
+        for (CompiledWorkflowRule rule : rules) {
 
-        try {
-            Map<String, Object> conditions =
-                    objectMapper.readValue(
-                            conditionsJson,
-                            new TypeReference<>() {}
-                    );
-
-            // Simple equals matching (v1)
-            for (String key : conditions.keySet()) {
-                if (!context.containsKey(key)) {
-                    return false;
+            long start = System.nanoTime();
+            long conditionNanos = 0;
+            boolean ruleMatched = false;
+            boolean ruleFailed = false;
+
+            try {
+                ruleMatched = rule.condition().matches(context);
+                conditionNanos = System.nanoTime() - start;
+
+                if (ruleMatched) {
+                    matched++;
+                    workflowActionExecutor.execute(rule, context, unitOfWork);
                 }
+            } catch (Exception e) {
+                failed++;
+                ruleFailed = true;
+                log.error("Workflow rule {} failed: {}", rule.id(), e.getMessage());
+            }
 
-                Object expected = conditions.get(key);
-                Object actual = context.get(key);
+            long elapsed = System.nanoTime() - start;
+            if (!ruleMatched) {
+                conditionNanos = elapsed;
+            }
+            workflowRuleMetrics.record(rule, conditionNanos, ruleMatched, elapsed - conditionNanos, ruleFailed);
+        }
+
+        // ---- One write per touched task, one notification batch, timers persisted ----
+        if (!unitOfWork.isEmpty()) {
+            try {
+                workflowActionExecutor.flush(unitOfWork);
 
-                if (!expected.toString().equals(actual.toString())) {
-                    return false;
+                if (!unitOfWork.getTimers().isEmpty()) {
+                    workflowTimerService.schedule(unitOfWork.getTimers());
                 }
+            } catch (Exception e) {
+                failed++;
+                flushFailed = true;
+                log.error("Workflow flush for {} failed: {}", eventType, e.getMessage());
             }
+        }
+
+        // Writes and notifications that were rolled back are not counted
+        if (!flushFailed) {
+            statsFor(eventType).record(rules.size(), matched, unitOfWork);
+        }
 
-            return true;
-        } catch (Exception e) {
-            log.error("Condition parsing failed", e);
-            return false;
+        if (shadowEnabled) {
+            evaluateShadow(context);
+        }
+
+        return new WorkflowEventResult(rules.size(), matched, failed, flushFailed);
+    }
+
+    private void evaluateShadow(WorkflowContext context) {
+
+        for (CompiledWorkflowRule rule : workflowRuleRegistry.shadowIndexFor(context.eventType()).candidates(context)) {
+            try {
+                boolean ruleMatched = rule.condition().matches(context);
+                workflowRuleMetrics.recordShadow(
+                        rule,
+                        ruleMatched,
+                        ruleMatched ? workflowActionExecutor.estimate(rule.actions(), context) : ActionCost.NONE
+                );
+            } catch (Exception e) {
+                log.debug("Shadow rule {} failed: {}", rule.id(), e.getMessage());
+            }
         }
     }
 
-    // ========================= ACTION DISPATCH =========================
-    private void executeActions(
-            String actionsJson,
+    /**
+     * v1 entry point kept for callers still building a {@code Map} context.
+     */
+    public WorkflowEventResult handleEvent(
+            WorkflowEventType eventType,
             Map<String, Object> context
     ) {
-        workflowActionExecutor.execute(actionsJson, context);
+        return handleEvent(WorkflowContext.fromMap(eventType, context));
+    }
+
+    // ========================= RULE REGISTRY =========================
+    public WorkflowRulesStatusDTO getRulesStatus() {
+        return toStatusDTO(workflowRuleRegistry.current());
+    }
+
+    public WorkflowRulesStatusDTO reloadRules() {
+        return toStatusDTO(workflowRuleRegistry.reload());
+    }
+
+    private WorkflowRulesStatusDTO toStatusDTO(WorkflowRuleRegistry.Snapshot snapshot) {
+
+        Map<WorkflowEventType, Integer> perEvent = new EnumMap<>(WorkflowEventType.class);
+        snapshot.rules().forEach((type, rules) -> perEvent.put(type, rules.size()));
+
+        return new WorkflowRulesStatusDTO(
+                snapshot.version(),
+                snapshot.sourceFingerprint(),
+                snapshot.loadedAt(),
+                snapshot.ruleCount(),
+                snapshot.skipped(),
+                perEvent
+        );
+    }
+
+    // ========================= INDEX DEBUG =========================
+    public List<WorkflowRuleIndexDTO> getRuleIndexStats() {
+
+        List<WorkflowRuleIndexDTO> result = new ArrayList<>();
+
+        for (WorkflowEventType type : WorkflowEventType.values()) {
+
+            RuleIndex index = workflowRuleRegistry.indexFor(type);
+            EventStats s = statsFor(type);
+
+            long events = s.events.sum();
+            long evaluated = s.evaluated.sum();
+
+            result.add(new WorkflowRuleIndexDTO(
+                    type,
+                    index.size(),
+                    index.unindexedCount(),
+                    index.bucketCounts(),
+                    events,
+                    evaluated,
+                    s.matched.sum(),
+                    events == 0 ? 0.0 : (double) evaluated / events,
+                    s.taskWritesRequested.sum(),
+                    s.taskWritesFlushed.sum(),
+                    s.notifications.sum()
+            ));
+        }
+
+        return result;
+    }
+
+    // ========================= PER-RULE METRICS =========================
+    public List<WorkflowRuleMetricsDTO> getRuleMetrics() {
+        return workflowRuleMetrics.snapshot();
+    }
+
+    public List<WorkflowShadowRuleDTO> getShadowRules() {
+        return workflowRuleMetrics.shadowSnapshot();
+    }
+
+    private EventStats statsFor(WorkflowEventType eventType) {
+        return stats.get(eventType);
+    }
+
+    private static final class EventStats {
+
+        private final LongAdder events = new LongAdder();
+        private final LongAdder evaluated = new LongAdder();
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder taskWritesRequested = new LongAdder();
+        private final LongAdder taskWritesFlushed = new LongAdder();
+        private final LongAdder notifications = new LongAdder();
+
+        private final DistributionSummary evaluatedPerEvent;
+        private final DistributionSummary taskWritesPerEvent;
+        private final DistributionSummary notificationsPerEvent;
+
+        private EventStats(
+                DistributionSummary evaluatedPerEvent,
+                DistributionSummary taskWritesPerEvent,
+                DistributionSummary notificationsPerEvent
+        ) {
+            this.evaluatedPerEvent = evaluatedPerEvent;
+            this.taskWritesPerEvent = taskWritesPerEvent;
+            this.notificationsPerEvent = notificationsPerEvent;
+        }
+
+        void record(int evaluatedRules, int matchedRules, WorkflowUnitOfWork unitOfWork) {
+
+            int writes = unitOfWork.getDirtyTasks().size();
+            int sent = unitOfWork.getNotifications().size();
+
+            events.increment();
+            evaluated.add(evaluatedRules);
+            matched.add(matchedRules);
+            taskWritesRequested.add(unitOfWork.getRequestedTaskWrites());
+            taskWritesFlushed.add(writes);
+            notifications.add(sent);
+
+            evaluatedPerEvent.record(evaluatedRules);
+            taskWritesPerEvent.record(writes);
+            notificationsPerEvent.record(sent);
+        }
     }
 }
@@ -0,0 +1,86 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.Project;
+import com.tasksync.entity.Task;
+import com.tasksync.repository.ProjectRepository;
+import com.tasksync.repository.TaskRepository;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowEventResult;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs one workflow event in a transaction of its own.
+ * <p>
+ * Every dispatch path goes through here, so a failing rule or flush can neither
+ * roll back the write that raised the event nor take other events down with it.
+ * The task or project is read again inside the new transaction, and actions work
+ * on its current state rather than on a copy from another session. A failed flush
+ * rolls back everything the event wrote; a failed rule on its own does not.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowEventRunner {
+
+    private final WorkflowEngine workflowEngine;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @PostConstruct
+    void init() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public WorkflowEventResult run(WorkflowContext event) {
+
+        try {
+            return tx.execute(status -> {
+
+                WorkflowContext context = reload(event);
+
+                if (context == null) {
+                    return WorkflowEventResult.skipped();
+                }
+
+                WorkflowEventResult result = workflowEngine.handleEvent(context);
+
+                if (result.flushFailed()) {
+                    status.setRollbackOnly();
+                }
+                return result;
+            });
+        } catch (Exception e) {
+            // Typically a repository call inside a rule failed and left the transaction rollback-only
+            log.error("Workflow event {} (task {}, project {}) rolled back: {}",
+                    event.eventType(), event.taskId(), event.projectId(), e.getMessage());
+            return WorkflowEventResult.rolledBack();
+        }
+    }
+
+    // Null when the task or project was deleted in the meantime
+    private WorkflowContext reload(WorkflowContext event) {
+
+        if (event.taskId() != WorkflowContext.NONE) {
+            Task task = taskRepository.findById(event.taskId()).orElse(null);
+            return task != null ? event.withEntities(task, task.getProject()) : null;
+        }
+
+        if (event.projectId() != WorkflowContext.NONE) {
+            Project project = projectRepository.findById(event.projectId()).orElse(null);
+            return project != null ? event.withEntities(null, project) : null;
+        }
+
+        return event;
+    }
+}
@@ -0,0 +1,306 @@
+package com.tasksync.service;
+
+import com.tasksync.dto.WorkflowReplayResultDTO;
+import com.tasksync.entity.*;
+import com.tasksync.repository.WorkflowOutboxRepository;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowEventResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Relays and replays events from the {@code workflow_outbox} table.
+ * <p>
+ * The relay reads due rows in id order with a keyset cursor, locking them with
+ * SKIP LOCKED so several nodes can poll without handing out the same row twice.
+ * Claiming a batch moves its {@code nextAttemptAt} forward by
+ * {@code app.workflow.outbox.claim-ms} and commits, so other nodes skip those rows
+ * while they are processed, and a node that dies mid-batch only delays them. Every
+ * event then runs in its own transaction through {@link WorkflowEventRunner}. A
+ * failure rolls back that event alone. Successful rows are marked done with one
+ * UPDATE and failed ones are retried with exponential backoff, each in a short
+ * transaction of its own. Delivery is at-least-once: a retried event re-runs every
+ * matching rule.
+ * <p>
+ * A row stores the facts conditions test as they were when the event was raised,
+ * so rules see the same event in OUTBOX mode as in SYNC and ASYNC. The task or
+ * project itself is loaded by the runner.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowOutboxService {
+
+    private final WorkflowOutboxRepository workflowOutboxRepository;
+    private final WorkflowEventRunner workflowEventRunner;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.workflow.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.workflow.outbox.max-batches-per-poll:50}")
+    private int maxBatchesPerPoll;
+
+    // How long a claimed row stays hidden from other pollers; must outlast one batch
+    @Value("${app.workflow.outbox.claim-ms:300000}")
+    private long claimMs;
+
+    @Value("${app.workflow.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.workflow.outbox.retry-base-ms:1000}")
+    private long retryBaseMs;
+
+    @Value("${app.workflow.outbox.retry-max-ms:600000}")
+    private long retryMaxMs;
+
+    @Value("${app.workflow.outbox.replay-parallelism:8}")
+    private int replayParallelism;
+
+    // ========================= WRITE (CALLER'S TRANSACTION) =========================
+    public void append(WorkflowContext context) {
+        workflowOutboxRepository.save(toOutboxEvent(context));
+    }
+
+    // Ids in the order of the contexts
+    public List<Long> appendAll(List<WorkflowContext> contexts) {
+        return workflowOutboxRepository.saveAll(contexts.stream().map(this::toOutboxEvent).toList())
+                .stream()
+                .map(WorkflowOutboxEvent::getId)
+                .toList();
+    }
+
+    private WorkflowOutboxEvent toOutboxEvent(WorkflowContext context) {
+
+        WorkflowOutboxEvent event = new WorkflowOutboxEvent();
+        event.setEventType(context.eventType());
+        event.setTaskId(context.taskId() != WorkflowContext.NONE ? context.taskId() : null);
+        event.setProjectId(context.projectId() != WorkflowContext.NONE ? context.projectId() : null);
+        event.setFromStatus(context.fromStatus());
+        event.setToStatus(context.toStatus());
+        event.setTaskStatus(context.status());
+        event.setPriority(context.priority());
+        event.setAssigneeId(context.assigneeId() != WorkflowContext.NONE ? context.assigneeId() : null);
+        event.setHasSla(context.hasSla());
+        event.setSlaBreached(context.slaBreached());
+        event.setEscalated(context.escalated());
+        return event;
+    }
+
+    // ========================= RELAY =========================
+    public int relayDue() {
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long cursor = 0;
+        int relayed = 0;
+
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+
+            long afterId = cursor;
+            List<Claimed> batch = tx.execute(status -> claimDueBatch(afterId));
+
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+
+            relayBatch(batch, tx);
+
+            relayed += batch.size();
+            cursor = batch.get(batch.size() - 1).event().getId();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        return relayed;
+    }
+
+    // Runs rows the caller wrote and committed just now; rows a poller already claimed are skipped
+    public int relay(List<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Claimed> batch = tx.execute(status -> {
+            Instant now = Instant.now();
+            return claim(workflowOutboxRepository.lockDueByIds(ids, now), now);
+        });
+
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        relayBatch(batch, tx);
+        return batch.size();
+    }
+
+    private List<Claimed> claimDueBatch(long afterId) {
+        Instant now = Instant.now();
+        return claim(workflowOutboxRepository.lockDueBatch(afterId, now, Limit.of(batchSize)), now);
+    }
+
+    // Pushes locked rows out of reach for claim-ms, so the locks can be released before the rules run
+    private List<Claimed> claim(List<WorkflowOutboxEvent> batch, Instant now) {
+
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+
+        Instant claimedUntil = now.plusMillis(claimMs);
+        batch.forEach(event -> event.setNextAttemptAt(claimedUntil));
+
+        return batch.stream()
+                .map(event -> new Claimed(event, toContext(event)))
+                .toList();
+    }
+
+    // Each event commits or rolls back on its own; outcomes are written after, outside any event's transaction
+    private void relayBatch(List<Claimed> batch, TransactionTemplate tx) {
+
+        List<Long> done = new ArrayList<>(batch.size());
+
+        for (Claimed claimed : batch) {
+
+            // A deleted task or project comes back as skipped, which counts as done
+            WorkflowEventResult result = workflowEventRunner.run(claimed.context());
+
+            if (result.isSuccess()) {
+                done.add(claimed.event().getId());
+            } else {
+                String error = result.flushFailed()
+                        ? "rolled back"
+                        : result.failed() + " rule(s) failed";
+                tx.executeWithoutResult(status -> scheduleRetry(claimed.event(), error, Instant.now()));
+            }
+        }
+
+        if (!done.isEmpty()) {
+            tx.executeWithoutResult(status -> workflowOutboxRepository.markDone(done, Instant.now()));
+        }
+    }
+
+    private void scheduleRetry(WorkflowOutboxEvent event, String error, Instant now) {
+
+        int attempts = event.getAttempts() + 1;
+        String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+
+        if (attempts >= maxAttempts) {
+            workflowOutboxRepository.recordFailure(event.getId(), attempts, OutboxStatus.FAILED, now, lastError);
+            log.error("Workflow outbox event {} gave up after {} attempts: {}", event.getId(), attempts, error);
+            return;
+        }
+
+        long backoff = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 30));
+        workflowOutboxRepository.recordFailure(
+                event.getId(), attempts, OutboxStatus.PENDING, now.plusMillis(backoff), lastError);
+
+        log.warn("Workflow outbox event {} failed (attempt {}), retry in {} ms: {}",
+                event.getId(), attempts, backoff, error);
+    }
+
+    // ========================= REPLAY =========================
+    public WorkflowReplayResultDTO replay(Instant from, Instant to) {
+
+        long start = System.nanoTime();
+        AtomicLong replayed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Semaphore permits = new Semaphore(replayParallelism);
+
+        long cursor = 0;
+
+        while (true) {
+
+            List<WorkflowOutboxEvent> batch =
+                    workflowOutboxRepository.findRangeBatch(from, to, cursor, Limit.of(batchSize));
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            // Events of one task stay in order; different tasks replay in parallel
+            Map<Long, List<WorkflowContext>> byTask = batch.stream()
+                    .filter(e -> e.getTaskId() != null || e.getProjectId() != null)
+                    .collect(Collectors.groupingBy(
+                            e -> e.getTaskId() != null ? e.getTaskId() : -e.getProjectId(),
+                            LinkedHashMap::new,
+                            Collectors.mapping(WorkflowOutboxService::toContext, Collectors.toList())
+                    ));
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+                for (List<WorkflowContext> group : byTask.values()) {
+                    executor.submit(() -> {
+                        permits.acquireUninterruptibly();
+                        try {
+                            for (WorkflowContext context : group) {
+                                replayed.incrementAndGet();
+                                if (!workflowEventRunner.run(context).isSuccess()) {
+                                    failed.incrementAndGet();
+                                }
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            log.error("Workflow replay failed: {}", e.getMessage());
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+
+            cursor = batch.get(batch.size() - 1).getId();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        long durationMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        log.info("Workflow replay {} .. {}: {} event(s), {} failed, {} ms", from, to, replayed.get(), failed.get(), durationMs);
+
+        return new WorkflowReplayResultDTO(from, to, replayed.get(), failed.get(), durationMs);
+    }
+
+    // ========================= REHYDRATION =========================
+    // Facts as stored at event time; the entity handles are filled in by the runner
+    private static WorkflowContext toContext(WorkflowOutboxEvent event) {
+
+        return new WorkflowContext(
+                event.getEventType(),
+                event.getTaskId() != null ? event.getTaskId() : WorkflowContext.NONE,
+                event.getProjectId() != null ? event.getProjectId() : WorkflowContext.NONE,
+                event.getTaskStatus(),
+                event.getFromStatus(),
+                event.getToStatus(),
+                event.getPriority(),
+                event.getAssigneeId() != null ? event.getAssigneeId() : WorkflowContext.NONE,
+                event.isHasSla(),
+                event.isSlaBreached(),
+                event.isEscalated(),
+                null,
+                null
+        );
+    }
+
+    private record Claimed(WorkflowOutboxEvent event, WorkflowContext context) {
+    }
+}
@@ -0,0 +1,215 @@
+package com.tasksync.service;
+
+import com.tasksync.dispatch.HierarchicalTimingWheel;
+import com.tasksync.entity.Task;
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.entity.WorkflowTimer;
+import com.tasksync.repository.TaskRepository;
+import com.tasksync.repository.WorkflowTimerRepository;
+import com.tasksync.util.AfterCommit;
+import com.tasksync.workflow.CompiledWorkflowRule;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowRuleRegistry;
+import com.tasksync.workflow.WorkflowUnitOfWork;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delayed workflow actions.
+ * <p>
+ * Each timer is a {@code workflow_timers} row plus an entry in an in-memory
+ * {@link HierarchicalTimingWheel}; nothing polls the table. Rows are read once on
+ * startup to rebuild the wheel. A status change drops the task's timers whose
+ * {@code ifStatus} guard no longer holds, both in the table and in the wheel.
+ * <p>
+ * Before running, a fired timer deletes its row and only proceeds if the delete hit.
+ * That makes timers at-most-once even when several nodes hold the same timer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowTimerService {
+
+    private final WorkflowTimerRepository workflowTimerRepository;
+    private final TaskRepository taskRepository;
+    private final WorkflowRuleRegistry workflowRuleRegistry;
+    private final WorkflowActionExecutor workflowActionExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.workflow.timers.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${app.workflow.timers.rebuild-batch-size:5000}")
+    private int rebuildBatchSize;
+
+    private final Map<Long, Set<HierarchicalTimingWheel.Timeout<TimerRef>>> byTask = new ConcurrentHashMap<>();
+
+    private HierarchicalTimingWheel<TimerRef> wheel;
+    private ExecutorService firing;
+    private Counter fired;
+
+    @PostConstruct
+    void start() {
+
+        firing = Executors.newVirtualThreadPerTaskExecutor();
+        fired = meterRegistry.counter("workflow.timers.fired");
+
+        wheel = new HierarchicalTimingWheel<>(
+                "workflow.timers",
+                tickMillis,
+                ref -> firing.submit(() -> fire(ref)),
+                meterRegistry
+        );
+    }
+
+    @PreDestroy
+    void stop() {
+        if (wheel != null) {
+            wheel.close();
+        }
+        if (firing != null) {
+            firing.shutdown();
+        }
+    }
+
+    // ========================= STARTUP REBUILD =========================
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        long cursor = 0;
+        int loaded = 0;
+
+        while (true) {
+
+            List<WorkflowTimer> batch =
+                    workflowTimerRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(rebuildBatchSize));
+
+            batch.forEach(this::arm);
+            loaded += batch.size();
+
+            if (batch.size() < rebuildBatchSize) {
+                break;
+            }
+            cursor = batch.get(batch.size() - 1).getId();
+        }
+
+        log.info("Workflow timers rebuilt: {} pending", loaded);
+    }
+
+    // ========================= SCHEDULE =========================
+    public void schedule(List<WorkflowUnitOfWork.TimerRequest> requests) {
+
+        Instant now = Instant.now();
+        List<WorkflowTimer> rows = new ArrayList<>(requests.size());
+
+        for (WorkflowUnitOfWork.TimerRequest request : requests) {
+
+            WorkflowTimer timer = new WorkflowTimer();
+            timer.setRuleId(request.ruleId());
+            timer.setTaskId(request.taskId());
+            timer.setDueAt(now.plus(request.delayed().delay()));
+            timer.setIfStatus(request.delayed().ifStatus());
+            rows.add(timer);
+        }
+
+        List<WorkflowTimer> saved = workflowTimerRepository.saveAll(rows);
+
+        // Arm only once the rows are committed
+        AfterCommit.run(() -> saved.forEach(this::arm));
+    }
+
+    private void arm(WorkflowTimer timer) {
+
+        TimerRef ref = new TimerRef(timer.getId(), timer.getRuleId(), timer.getTaskId(), timer.getIfStatus());
+        HierarchicalTimingWheel.Timeout<TimerRef> timeout = wheel.schedule(ref, timer.getDueAt());
+
+        byTask.computeIfAbsent(ref.taskId(), id -> ConcurrentHashMap.newKeySet()).add(timeout);
+    }
+
+    // ========================= CANCEL ON STATUS CHANGE =========================
+    public void onStatusChange(long taskId, TaskStatus newStatus) {
+
+        workflowTimerRepository.deleteStale(taskId, newStatus);
+
+        // If the status change rolls back, the rows come back and so must the wheel entries
+        AfterCommit.run(() -> cancelStale(taskId, newStatus));
+    }
+
+    private void cancelStale(long taskId, TaskStatus newStatus) {
+
+        Set<HierarchicalTimingWheel.Timeout<TimerRef>> timers = byTask.get(taskId);
+        if (timers == null) {
+            return;
+        }
+
+        timers.removeIf(t -> {
+            TaskStatus guard = t.payload().ifStatus();
+            return (guard == null || guard != newStatus) && t.cancel();
+        });
+        byTask.computeIfPresent(taskId, (id, set) -> set.isEmpty() ? null : set);
+    }
+
+    // ========================= FIRE =========================
+    private void fire(TimerRef ref) {
+
+        byTask.computeIfPresent(ref.taskId(), (id, set) -> {
+            set.removeIf(t -> t.payload() == ref);
+            return set.isEmpty() ? null : set;
+        });
+
+        try {
+            if (workflowTimerRepository.claim(ref.id()) == 0) {
+                return; // cancelled, or fired on another node
+            }
+
+            Task task = taskRepository.findById(ref.taskId()).orElse(null);
+            if (task == null) {
+                return;
+            }
+            if (ref.ifStatus() != null && task.getStatus() != ref.ifStatus()) {
+                return;
+            }
+
+            CompiledWorkflowRule rule = workflowRuleRegistry.find(ref.ruleId());
+            if (rule == null || rule.actions().delayed() == null) {
+                log.info("Workflow timer {} dropped: rule {} is disabled or no longer delayed", ref.id(), ref.ruleId());
+                return;
+            }
+
+            workflowActionExecutor.execute(
+                    rule.actions().delayed().actions(),
+                    WorkflowContext.forTask(rule.eventType(), task)
+            );
+            fired.increment();
+
+        } catch (Exception e) {
+            log.error("Workflow timer {} failed: {}", ref.id(), e.getMessage());
+        }
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    private record TimerRef(Long id, Long ruleId, Long taskId, TaskStatus ifStatus) {
+    }
+}
@@ -1,39 +1,171 @@
 package com.tasksync.service;
 
+import com.tasksync.dispatch.BoundedLaneDispatcher;
+import com.tasksync.dispatch.OverflowPolicy;
+import com.tasksync.dto.NotificationDigestDTO;
+import com.tasksync.dto.UnreadCountDTO;
 import com.tasksync.dto.WsNotificationDTO;
 import com.tasksync.entity.Notification;
+import com.tasksync.util.AfterCommit;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket delivery of notifications and unread badges.
+ * <p>
+ * Nothing is sent from the caller's thread. Pushes are queued once the surrounding
+ * transaction commits, so nobody hears about rows that were rolled back, and a
+ * slow STOMP channel never adds to REST latency. The queue is a
+ * {@link BoundedLaneDispatcher} keyed by username: one user's pushes arrive in
+ * the order they were queued. When a lane is full the configured
+ * {@link OverflowPolicy} applies. Dropping is the default, since clients can
+ * refetch and badges are reconciled.
+ * <p>
+ * Notification frames carry a per-user sequence number from
+ * {@link NotificationReplayBuffer}, so clients can detect gaps and replay them.
+ * <p>
+ * Metrics: {@code notifications.ws.queue.depth}, {@code .dropped}, {@code .lag}
+ * (queue wait) from the dispatcher, and {@code notifications.ws.delivery}, the
+ * time from enqueue until the message is handed to the broker.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class WsNotificationSender {
 
+    private static final String NOTIFICATIONS = "/queue/notifications";
+    private static final String UNREAD_COUNT = "/queue/unread-count";
+    private static final String DIGEST = "/queue/notification-digest";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final NotificationReplayBuffer replayBuffer;
+
+    @Value("${app.notifications.ws.lanes:4}")
+    private int lanes;
+
+    @Value("${app.notifications.ws.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.ws.overflow:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    private BoundedLaneDispatcher<Delivery> dispatcher;
+    private Timer delivery;
+
+    @PostConstruct
+    void start() {
+
+        delivery = Timer.builder("notifications.ws.delivery")
+                .description("Enqueue to broker hand-off for WebSocket notifications")
+                .register(meterRegistry);
+
+        dispatcher = new BoundedLaneDispatcher<>(
+                "notifications.ws",
+                lanes,
+                queueCapacity,
+                overflowPolicy,
+                this::deliver,
+                meterRegistry
+        );
+
+        log.info("WebSocket notification delivery: {} lane(s) x {} slots, overflow={}",
+                lanes, queueCapacity, overflowPolicy);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
 
     // ========================= SEND TO USER =========================
     public void sendToUser(String username, WsNotificationDTO payload) {
+        AfterCommit.run(() -> enqueueNotification(username, payload));
+    }
 
-        messagingTemplate.convertAndSendToUser(
-                username,
-                "/queue/notifications",
-                payload
-        );
+    // ========================= UNREAD BADGE =========================
+    // Queued straight away: counters only change after their transaction has committed
+    public void sendUnreadCount(String username, long unread) {
+        enqueue(username, UNREAD_COUNT, new UnreadCountDTO(unread));
+    }
+
+    // ========================= DIGEST =========================
+    public void sendDigest(String username, NotificationDigestDTO digest) {
+        AfterCommit.run(() -> enqueue(username, DIGEST, digest));
     }
 
-    // ========================= SEND FROM NOTIFICATION ENTITY =========================
-    public void sendFromNotification(Notification notification) {
+    // ========================= SEND BATCH =========================
+    // Payloads are built now, while the entities are at hand; one after-commit hook for the batch
+    public void sendFromNotifications(List<Notification> notifications) {
 
-        WsNotificationDTO payload = new WsNotificationDTO(
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        List<Addressed> frames = notifications.stream()
+                .map(n -> new Addressed(n.getRecipient().getUsername(), toPayload(n)))
+                .toList();
+
+        AfterCommit.run(() -> frames.forEach(f -> enqueueNotification(f.username(), f.payload())));
+    }
+
+    // ========================= QUEUE =========================
+    // Numbered and kept for replay before queueing, so a frame dropped on overflow still shows up as a gap
+    private void enqueueNotification(String username, WsNotificationDTO payload) {
+        replayBuffer.append(username, payload, () -> enqueue(username, NOTIFICATIONS, payload));
+    }
+
+    private void enqueue(String username, String destination, Object payload) {
+
+        Delivery item = new Delivery(username, destination, payload, System.nanoTime());
+
+        if (dispatcher == null) {
+            deliver(item); // not started (outside a Spring context)
+            return;
+        }
+
+        dispatcher.submit(username, item);
+    }
+
+    private void deliver(Delivery item) {
+
+        messagingTemplate.convertAndSendToUser(item.username(), item.destination(), item.payload());
+
+        if (delivery != null) {
+            delivery.record(System.nanoTime() - item.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Also used for replays served from storage
+    static WsNotificationDTO toPayload(Notification notification) {
+        return new WsNotificationDTO(
+                notification.getId(),
                 notification.getType(),
                 notification.getMessage(),
                 notification.getProjectId(),
                 notification.getTaskId(),
-                notification.getCreatedAt()
+                notification.getCreatedAt(),
+                notification.getCount(),
+                0L // numbered when it is queued
         );
+    }
+
+    private record Addressed(String username, WsNotificationDTO payload) {
+    }
 
-        sendToUser(notification.getRecipient().getUsername(), payload);
+    private record Delivery(String username, String destination, Object payload, long enqueuedAtNanos) {
     }
 }
@@ -0,0 +1,10 @@
+package com.tasksync.workflow;
+
+/**
+ * What an {@link ActionPlan} would do for one event if it ran: notifications created
+ * and whether the task would be written.
+ */
+public record ActionCost(int notifications, int taskWrites) {
+
+    public static final ActionCost NONE = new ActionCost(0, 0);
+}
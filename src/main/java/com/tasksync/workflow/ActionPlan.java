@@ -0,0 +1,28 @@
+package com.tasksync.workflow;
+
+import com.tasksync.entity.TaskPriority;
+
+import java.util.List;
+
+/**
+ * Compiled rule actions. Only the actions present in the rule JSON are set.
+ * {@code delayed} is scheduled on a timer instead of running at event time.
+ */
+public record ActionPlan(
+        List<String> notifyTargets,
+        TaskPriority setPriority,
+        boolean resetSla,
+        boolean escalate,
+        DelayedAction delayed
+) {
+
+    public static final ActionPlan NONE = new ActionPlan(List.of(), null, false, false, null);
+
+    public ActionPlan {
+        notifyTargets = List.copyOf(notifyTargets);
+    }
+
+    public boolean isEmpty() {
+        return notifyTargets.isEmpty() && setPriority == null && !resetSla && !escalate && delayed == null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tasksync.workflow;
+
+import com.tasksync.entity.WorkflowEventType;
+
+/**
+ * Immutable, pre-parsed form of a {@link com.tasksync.entity.WorkflowRule}.
+ * Built once by the {@link WorkflowRuleRegistry} so events never touch JSON.
+ */
+public record CompiledWorkflowRule(
+        Long id,
+        WorkflowEventType eventType,
+        RuleCondition condition,
+        ActionPlan actions
+) {
+}
@@ -0,0 +1,186 @@
+package com.tasksync.workflow;
+
+import com.tasksync.entity.TaskPriority;
+import com.tasksync.entity.TaskStatus;
+
+/**
+ * Condition keys a rule can test, each reduced to a {@code long} code so a condition is
+ * a single primitive comparison. Enum values compare by ordinal, booleans as 0/1.
+ * <p>
+ * The JSON key of each field is the same one v1 rules already used.
+ */
+public enum ConditionField {
+
+    TASK_ID("taskId") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return id(ctx.taskId());
+        }
+
+        @Override
+        long parse(String value) {
+            return Long.parseLong(value);
+        }
+    },
+
+    PROJECT_ID("projectId") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return id(ctx.projectId());
+        }
+
+        @Override
+        long parse(String value) {
+            return Long.parseLong(value);
+        }
+    },
+
+    ASSIGNEE_ID("assigneeId") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return id(ctx.assigneeId());
+        }
+
+        @Override
+        long parse(String value) {
+            return Long.parseLong(value);
+        }
+    },
+
+    STATUS("status") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return code(ctx.status());
+        }
+
+        @Override
+        long parse(String value) {
+            return TaskStatus.valueOf(value).ordinal();
+        }
+    },
+
+    FROM_STATUS("fromStatus") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return code(ctx.fromStatus());
+        }
+
+        @Override
+        long parse(String value) {
+            return TaskStatus.valueOf(value).ordinal();
+        }
+    },
+
+    TO_STATUS("toStatus") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return code(ctx.toStatus());
+        }
+
+        @Override
+        long parse(String value) {
+            return TaskStatus.valueOf(value).ordinal();
+        }
+    },
+
+    PRIORITY("priority") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return code(ctx.priority());
+        }
+
+        @Override
+        long parse(String value) {
+            return TaskPriority.valueOf(value).ordinal();
+        }
+    },
+
+    HAS_SLA("hasSla") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return ctx.taskId() == WorkflowContext.NONE ? ABSENT : flag(ctx.hasSla());
+        }
+
+        @Override
+        long parse(String value) {
+            return bool(value);
+        }
+    },
+
+    SLA_BREACHED("slaBreached") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return ctx.taskId() == WorkflowContext.NONE ? ABSENT : flag(ctx.slaBreached());
+        }
+
+        @Override
+        long parse(String value) {
+            return bool(value);
+        }
+    },
+
+    ESCALATED("escalated") {
+        @Override
+        long extract(WorkflowContext ctx) {
+            return ctx.taskId() == WorkflowContext.NONE ? ABSENT : flag(ctx.escalated());
+        }
+
+        @Override
+        long parse(String value) {
+            return bool(value);
+        }
+    };
+
+    // Value of a field the event does not carry; never equal to a parsed code
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private final String key;
+
+    ConditionField(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    abstract long extract(WorkflowContext ctx);
+
+    /**
+     * @throws IllegalArgumentException when the value is not valid for this field
+     */
+    abstract long parse(String value);
+
+    public static ConditionField fromKey(String key) {
+
+        for (ConditionField field : values()) {
+            if (field.key.equals(key)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static long id(long id) {
+        return id == WorkflowContext.NONE ? ABSENT : id;
+    }
+
+    private static long code(Enum<?> value) {
+        return value == null ? ABSENT : value.ordinal();
+    }
+
+    private static long flag(boolean value) {
+        return value ? 1L : 0L;
+    }
+
+    private static long bool(String value) {
+
+        if ("true".equalsIgnoreCase(value)) {
+            return 1L;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return 0L;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    }
+}
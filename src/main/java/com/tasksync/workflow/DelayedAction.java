@@ -0,0 +1,19 @@
+package com.tasksync.workflow;
+
+import com.tasksync.entity.TaskStatus;
+
+import java.time.Duration;
+
+/**
+ * Actions that run a fixed delay after the rule matched, e.g.
+ * {@code "after": {"hours": 4, "ifStatus": "IN_PROGRESS", "escalate": true}}.
+ * <p>
+ * With {@code ifStatus} set the actions only run if the task is still in that status
+ * when the timer fires.
+ */
+public record DelayedAction(
+        Duration delay,
+        TaskStatus ifStatus,
+        ActionPlan actions
+) {
+}
@@ -0,0 +1,58 @@
+package com.tasksync.workflow;
+
+import java.util.List;
+
+/**
+ * Compiled rule conditions: a conjunction of equality checks on {@link ConditionField}s.
+ * <p>
+ * A rule referencing a key or value that can never be satisfied (for example the v1
+ * {@code task}/{@code project} keys, which compared entity {@code toString()} output) is
+ * compiled as {@link #NEVER}, which is how such rules behaved before.
+ */
+public final class RuleCondition {
+
+    public static final RuleCondition ALWAYS = new RuleCondition(List.of(), false);
+    public static final RuleCondition NEVER = new RuleCondition(List.of(), true);
+
+    private final Equality[] equalities;
+    private final boolean never;
+
+    public RuleCondition(List<Equality> equalities) {
+        this(equalities, false);
+    }
+
+    private RuleCondition(List<Equality> equalities, boolean never) {
+        this.equalities = equalities.toArray(new Equality[0]);
+        this.never = never;
+    }
+
+    public List<Equality> equalities() {
+        return List.of(equalities);
+    }
+
+    public boolean isUnconditional() {
+        return !never && equalities.length == 0;
+    }
+
+    public boolean isNever() {
+        return never;
+    }
+
+    public boolean matches(WorkflowContext context) {
+
+        if (never) {
+            return false;
+        }
+
+        for (Equality equality : equalities) {
+            if (equality.field().extract(context) != equality.expected()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public record Equality(ConditionField field, long expected) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.tasksync.workflow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Discriminator index over the rules of one event type.
+ * <p>
+ * Every rule is filed under its most selective equality condition (the field with the
+ * most distinct expected values across the event's rules, ties broken by
+ * {@link #PREFERRED_FIELDS}). An event then only evaluates the rules in the buckets that
+ * match its own values, plus the rules that have no condition at all. Rules that can
+ * never match are left out.
+ */
+public final class RuleIndex {
+
+    static final List<ConditionField> PREFERRED_FIELDS = List.of(
+            ConditionField.TO_STATUS,
+            ConditionField.FROM_STATUS,
+            ConditionField.PROJECT_ID
+    );
+
+    public static final RuleIndex EMPTY = new RuleIndex(List.of());
+
+    private final int size;
+    private final List<CompiledWorkflowRule> unindexed;
+    private final Map<ConditionField, Map<Long, List<CompiledWorkflowRule>>> buckets;
+
+    public RuleIndex(List<CompiledWorkflowRule> rules) {
+
+        this.size = rules.size();
+
+        Map<ConditionField, Set<Long>> distinctValues = new EnumMap<>(ConditionField.class);
+        for (CompiledWorkflowRule rule : rules) {
+            for (RuleCondition.Equality eq : rule.condition().equalities()) {
+                distinctValues.computeIfAbsent(eq.field(), f -> new HashSet<>()).add(eq.expected());
+            }
+        }
+
+        Comparator<ConditionField> selectivity = Comparator
+                .<ConditionField>comparingInt(field -> distinctValues.get(field).size())
+                .thenComparingInt(field -> -preference(field));
+
+        List<CompiledWorkflowRule> always = new ArrayList<>();
+        Map<ConditionField, Map<Long, List<CompiledWorkflowRule>>> byField = new EnumMap<>(ConditionField.class);
+
+        for (CompiledWorkflowRule rule : rules) {
+
+            if (rule.condition().isNever()) {
+                continue;
+            }
+
+            RuleCondition.Equality discriminator = rule.condition().equalities()
+                    .stream()
+                    .max(Comparator.comparing(RuleCondition.Equality::field, selectivity))
+                    .orElse(null);
+
+            if (discriminator == null) {
+                always.add(rule);
+                continue;
+            }
+
+            byField.computeIfAbsent(discriminator.field(), f -> new HashMap<>())
+                    .computeIfAbsent(discriminator.expected(), v -> new ArrayList<>())
+                    .add(rule);
+        }
+
+        byField.values().forEach(values -> values.replaceAll((v, list) -> List.copyOf(list)));
+
+        this.unindexed = List.copyOf(always);
+        this.buckets = byField;
+    }
+
+    private static int preference(ConditionField field) {
+        int i = PREFERRED_FIELDS.indexOf(field);
+        return i < 0 ? PREFERRED_FIELDS.size() : i;
+    }
+
+    // ========================= LOOKUP =========================
+    public List<CompiledWorkflowRule> candidates(WorkflowContext context) {
+
+        List<CompiledWorkflowRule> result = null;
+
+        for (Map.Entry<ConditionField, Map<Long, List<CompiledWorkflowRule>>> entry : buckets.entrySet()) {
+
+            long actual = entry.getKey().extract(context);
+            if (actual == ConditionField.ABSENT) {
+                continue;
+            }
+
+            List<CompiledWorkflowRule> bucket = entry.getValue().get(actual);
+            if (bucket != null) {
+                if (result == null) {
+                    result = new ArrayList<>(unindexed);
+                }
+                result.addAll(bucket);
+            }
+        }
+
+        if (result == null) {
+            return unindexed;
+        }
+
+        // Keep rule id order, same as the unindexed scan
+        result.sort(Comparator.comparing(CompiledWorkflowRule::id));
+        return result;
+    }
+
+    // ========================= STATS =========================
+    public int size() {
+        return size;
+    }
+
+    public int unindexedCount() {
+        return unindexed.size();
+    }
+
+    // discriminator key -> number of distinct values indexed under it
+    public Map<String, Integer> bucketCounts() {
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        buckets.forEach((field, values) -> counts.put(field.key(), values.size()));
+        return counts;
+    }
+}
@@ -0,0 +1,144 @@
+package com.tasksync.workflow;
+
+import com.tasksync.entity.Project;
+import com.tasksync.entity.Task;
+import com.tasksync.entity.TaskPriority;
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.entity.User;
+import com.tasksync.entity.WorkflowEventType;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the facts a workflow event carries.
+ * <p>
+ * Conditions only read the primitive/enum fields, which are captured when the event is
+ * raised. The {@code task} and {@code project} entities are handles for the actions and
+ * are never inspected by conditions. Ids are {@link #NONE} when absent.
+ */
+public record WorkflowContext(
+        WorkflowEventType eventType,
+        long taskId,
+        long projectId,
+        TaskStatus status,
+        TaskStatus fromStatus,
+        TaskStatus toStatus,
+        TaskPriority priority,
+        long assigneeId,
+        boolean hasSla,
+        boolean slaBreached,
+        boolean escalated,
+        Task task,
+        Project project
+) {
+
+    public static final long NONE = 0L;
+
+    // ========================= FACTORIES =========================
+    public static WorkflowContext forTask(WorkflowEventType eventType, Task task) {
+        return forTask(eventType, task, null, null);
+    }
+
+    public static WorkflowContext forStatusChange(Task task, TaskStatus fromStatus, TaskStatus toStatus) {
+        return forTask(WorkflowEventType.TASK_STATUS_CHANGED, task, fromStatus, toStatus);
+    }
+
+    public static WorkflowContext forProject(WorkflowEventType eventType, Project project) {
+
+        return new WorkflowContext(
+                eventType,
+                NONE,
+                idOf(project),
+                null,
+                null,
+                null,
+                null,
+                NONE,
+                false,
+                false,
+                false,
+                null,
+                project
+        );
+    }
+
+    public static WorkflowContext forTask(
+            WorkflowEventType eventType,
+            Task task,
+            TaskStatus fromStatus,
+            TaskStatus toStatus
+    ) {
+
+        return new WorkflowContext(
+                eventType,
+                task.getId() != null ? task.getId() : NONE,
+                idOf(task.getProject()),
+                task.getStatus(),
+                fromStatus,
+                toStatus,
+                task.getPriority(),
+                idOf(task.getAssignee()),
+                task.getSlaHours() != null,
+                task.isSlaBreached(),
+                task.isEscalated(),
+                task,
+                task.getProject()
+        );
+    }
+
+    // Same facts with entity handles re-read by the transaction that runs the rules
+    public WorkflowContext withEntities(Task task, Project project) {
+
+        return new WorkflowContext(
+                eventType,
+                taskId,
+                projectId,
+                status,
+                fromStatus,
+                toStatus,
+                priority,
+                assigneeId,
+                hasSla,
+                slaBreached,
+                escalated,
+                task,
+                project
+        );
+    }
+
+    // ========================= LEGACY MAP ADAPTER =========================
+    /**
+     * Builds a context from the v1 {@code Map<String,Object>} shape
+     * ({@code task}, {@code project}, {@code fromStatus}, {@code toStatus}).
+     */
+    public static WorkflowContext fromMap(WorkflowEventType eventType, Map<String, Object> context) {
+
+        Object from = context.get("fromStatus");
+        Object to = context.get("toStatus");
+
+        if (context.get("task") instanceof Task task) {
+            return forTask(eventType, task, toStatus(from), toStatus(to));
+        }
+
+        return forProject(eventType, (Project) context.get("project"));
+    }
+
+    private static TaskStatus toStatus(Object value) {
+
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof TaskStatus status) {
+            return status;
+        }
+        return TaskStatus.valueOf(value.toString());
+    }
+
+    private static long idOf(Project project) {
+        return project != null && project.getId() != null ? project.getId() : NONE;
+    }
+
+    private static long idOf(User user) {
+        return user != null && user.getId() != null ? user.getId() : NONE;
+    }
+}
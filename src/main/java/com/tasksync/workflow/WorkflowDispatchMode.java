@@ -0,0 +1,13 @@
+package com.tasksync.workflow;
+
+public enum WorkflowDispatchMode {
+
+    // Rules run on the caller's thread after the surrounding transaction commits
+    SYNC,
+
+    // Rules run on virtual-thread workers after the surrounding transaction commits
+    ASYNC,
+
+    // Event is written to workflow_outbox in the caller's transaction and relayed by a poller
+    OUTBOX
+}
@@ -0,0 +1,125 @@
+package com.tasksync.workflow;
+
+import com.tasksync.dispatch.BoundedLaneDispatcher;
+import com.tasksync.dispatch.OverflowPolicy;
+import com.tasksync.service.WorkflowEventRunner;
+import com.tasksync.service.WorkflowOutboxService;
+import com.tasksync.util.AfterCommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single entry point for raising workflow events.
+ * <p>
+ * In {@code SYNC} mode the event runs on the caller's thread once the current
+ * transaction commits (or immediately when there is none). In {@code ASYNC} mode it is
+ * queued at the same point and its lane is picked by task (by project for project
+ * events), so the events of one task keep their order while different tasks run in
+ * parallel. Either way {@link WorkflowEventRunner} gives each event its own
+ * transaction and reloads the task there, and a failing rule never rolls back the
+ * caller's write. In {@code OUTBOX} mode the event is written to the outbox table
+ * inside the caller's transaction and picked up later by {@link WorkflowOutboxService}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowEventPublisher {
+
+    private final WorkflowEventRunner workflowEventRunner;
+    private final WorkflowOutboxService workflowOutboxService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.workflow.dispatch.mode:SYNC}")
+    private WorkflowDispatchMode mode;
+
+    @Value("${app.workflow.dispatch.workers:4}")
+    private int workers;
+
+    @Value("${app.workflow.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.workflow.dispatch.overflow:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    private BoundedLaneDispatcher<WorkflowContext> dispatcher;
+
+    @PostConstruct
+    void start() {
+
+        if (mode == WorkflowDispatchMode.ASYNC) {
+            dispatcher = new BoundedLaneDispatcher<>(
+                    "workflow.events",
+                    workers,
+                    queueCapacity,
+                    overflowPolicy,
+                    workflowEventRunner::run,
+                    meterRegistry
+            );
+
+            log.info("Workflow dispatch: ASYNC, {} lane(s) x {} slots, overflow={}",
+                    workers, queueCapacity, overflowPolicy);
+        } else if (mode == WorkflowDispatchMode.OUTBOX) {
+            log.info("Workflow dispatch: OUTBOX");
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    // ========================= PUBLISH =========================
+    public void publish(WorkflowContext event) {
+
+        if (mode == WorkflowDispatchMode.OUTBOX) {
+            workflowOutboxService.append(event);
+            return;
+        }
+
+        if (dispatcher == null) {
+            AfterCommit.run(() -> workflowEventRunner.run(event));
+            return;
+        }
+
+        AfterCommit.run(() -> dispatcher.submit(orderingKey(event), event));
+    }
+
+    // ========================= PUBLISH BATCH =========================
+    // One outbox insert batch, or one after-commit hook for the whole list
+    public void publishAll(List<WorkflowContext> events) {
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        if (mode == WorkflowDispatchMode.OUTBOX) {
+            workflowOutboxService.appendAll(events);
+            return;
+        }
+
+        if (dispatcher == null) {
+            AfterCommit.run(() -> events.forEach(workflowEventRunner::run));
+            return;
+        }
+
+        AfterCommit.run(() -> events.forEach(event -> dispatcher.submit(orderingKey(event), event)));
+    }
+
+    private static long orderingKey(WorkflowContext event) {
+        return event.taskId() != WorkflowContext.NONE ? event.taskId() : event.projectId();
+    }
+
+    public WorkflowDispatchMode getMode() {
+        return mode;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tasksync.workflow;
+
+/**
+ * Outcome of handling one workflow event.
+ * <p>
+ * {@code flushFailed} means the buffered writes could not be applied, so whatever
+ * the rules did for this event has to be rolled back.
+ */
+public record WorkflowEventResult(
+        int evaluated,
+        int matched,
+        int failed,
+        boolean flushFailed
+) {
+
+    // Nothing to run: the task or project no longer exists
+    public static WorkflowEventResult skipped() {
+        return new WorkflowEventResult(0, 0, 0, false);
+    }
+
+    public static WorkflowEventResult rolledBack() {
+        return new WorkflowEventResult(0, 0, 1, true);
+    }
+
+    public boolean isSuccess() {
+        return failed == 0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.tasksync.workflow;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasksync.entity.TaskPriority;
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.entity.WorkflowRule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class WorkflowRuleCompiler {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // ========================= RULE =========================
+    public CompiledWorkflowRule compile(WorkflowRule rule) {
+
+        return new CompiledWorkflowRule(
+                rule.getId(),
+                rule.getEventType(),
+                compileConditions(rule.getConditionsJson()),
+                compileActions(rule.getActionsJson())
+        );
+    }
+
+    // ========================= CONDITIONS =========================
+    public RuleCondition compileConditions(String conditionsJson) {
+
+        if (conditionsJson == null || conditionsJson.isBlank()) {
+            return RuleCondition.ALWAYS; // No conditions = always match
+        }
+
+        Map<String, Object> conditions = read(conditionsJson, "conditions");
+        List<RuleCondition.Equality> equalities = new ArrayList<>();
+
+        for (Map.Entry<String, Object> entry : conditions.entrySet()) {
+
+            if (entry.getValue() == null) {
+                throw new IllegalArgumentException("Condition '" + entry.getKey() + "' has no value");
+            }
+
+            ConditionField field = ConditionField.fromKey(entry.getKey());
+            if (field == null) {
+                log.warn("Unknown workflow condition '{}', rule can never match", entry.getKey());
+                return RuleCondition.NEVER;
+            }
+
+            try {
+                equalities.add(new RuleCondition.Equality(field, field.parse(entry.getValue().toString())));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid value '{}' for workflow condition '{}', rule can never match",
+                        entry.getValue(), entry.getKey());
+                return RuleCondition.NEVER;
+            }
+        }
+
+        return new RuleCondition(equalities);
+    }
+
+    // ========================= ACTIONS =========================
+    public ActionPlan compileActions(String actionsJson) {
+
+        if (actionsJson == null || actionsJson.isBlank()) {
+            return ActionPlan.NONE;
+        }
+
+        return compileActions(read(actionsJson, "actions"), true);
+    }
+
+    private ActionPlan compileActions(Map<String, Object> actions, boolean allowDelay) {
+
+        List<String> notifyTargets = new ArrayList<>();
+        if (actions.get("notify") instanceof List<?> targets) {
+            targets.forEach(t -> notifyTargets.add(String.valueOf(t)));
+        }
+
+        TaskPriority priority = null;
+        if (actions.containsKey("setPriority")) {
+            priority = TaskPriority.valueOf(String.valueOf(actions.get("setPriority")));
+        }
+
+        DelayedAction delayed = null;
+        if (actions.get("after") instanceof Map<?, ?> after) {
+            if (!allowDelay) {
+                throw new IllegalArgumentException("Delayed actions cannot be nested");
+            }
+            delayed = compileDelayed(after);
+        }
+
+        return new ActionPlan(
+                notifyTargets,
+                priority,
+                Boolean.TRUE.equals(actions.get("resetSla")),
+                Boolean.TRUE.equals(actions.get("escalate")),
+                delayed
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private DelayedAction compileDelayed(Map<?, ?> after) {
+
+        Duration delay = Duration.ZERO;
+        if (after.get("hours") instanceof Number hours) {
+            delay = delay.plusMinutes(Math.round(hours.doubleValue() * 60));
+        }
+        if (after.get("minutes") instanceof Number minutes) {
+            delay = delay.plusMinutes(minutes.longValue());
+        }
+        if (delay.isZero() || delay.isNegative()) {
+            throw new IllegalArgumentException("Delayed action needs a positive 'hours' or 'minutes'");
+        }
+
+        TaskStatus ifStatus = null;
+        if (after.get("ifStatus") != null) {
+            ifStatus = TaskStatus.valueOf(String.valueOf(after.get("ifStatus")));
+        }
+
+        ActionPlan actions = compileActions((Map<String, Object>) after, false);
+        if (actions.isEmpty()) {
+            throw new IllegalArgumentException("Delayed action has nothing to do");
+        }
+
+        return new DelayedAction(delay, ifStatus, actions);
+    }
+
+    private Map<String, Object> read(String json, String what) {
+
+        try {
+            Map<String, Object> value = objectMapper.readValue(json, new TypeReference<>() {});
+            return value != null ? value : Map.of();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid " + what + " JSON: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.tasksync.workflow;
+
+import com.tasksync.dto.WorkflowRuleMetricsDTO;
+import com.tasksync.dto.WorkflowShadowRuleDTO;
+import com.tasksync.entity.WorkflowEventType;
+import com.tasksync.repository.WorkflowRuleRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-rule counters and timers, tagged with {@code rule} and {@code eventType}.
+ * <p>
+ * A rule whose condition + action time exceeds the latency budget on
+ * {@code slow-after} consecutive evaluations is flagged as slow. With
+ * {@code auto-disable-slow} on, a flagged rule is also switched off in the database
+ * and the registry is reloaded. That runs on its own virtual thread and commits on
+ * its own: it must not join, or roll back with, the event that tripped it.
+ * <p>
+ * Meters of rules that are no longer in the table are removed on each reload.
+ * <p>
+ * Disabled rules evaluated in shadow mode get their own counters: hypothetical
+ * matches, notifications and task writes, nothing is executed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowRuleMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final WorkflowRuleRepository workflowRuleRepository;
+    private final WorkflowRuleRegistry workflowRuleRegistry;
+
+    // 0 turns slow-rule detection off
+    @Value("${app.workflow.rules.latency-budget-ms:50}")
+    private long latencyBudgetMs;
+
+    @Value("${app.workflow.rules.slow-after:5}")
+    private int slowAfter;
+
+    @Value("${app.workflow.rules.auto-disable-slow:false}")
+    private boolean autoDisableSlow;
+
+    private final Map<Long, RuleStats> stats = new ConcurrentHashMap<>();
+    private final Map<Long, ShadowStats> shadowStats = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        workflowRuleRegistry.onReload(this::dropDeleted);
+    }
+
+    // ========================= RECORD =========================
+    public void record(
+            CompiledWorkflowRule rule,
+            long conditionNanos,
+            boolean matched,
+            long actionNanos,
+            boolean failed
+    ) {
+        RuleStats s = stats.computeIfAbsent(rule.id(), id -> new RuleStats(id, rule.eventType(), meterRegistry));
+
+        s.evaluations.increment();
+        s.conditionTime.record(conditionNanos, TimeUnit.NANOSECONDS);
+
+        if (matched) {
+            s.matches.increment();
+            s.actionExecutions.increment();
+            s.actionTime.record(actionNanos, TimeUnit.NANOSECONDS);
+        }
+        if (failed) {
+            s.failures.increment();
+        }
+
+        checkBudget(s, conditionNanos + actionNanos);
+    }
+
+    public void recordShadow(CompiledWorkflowRule rule, boolean matched, ActionCost cost) {
+
+        ShadowStats s = shadowStats.computeIfAbsent(rule.id(), id -> new ShadowStats(id, rule.eventType(), meterRegistry));
+
+        s.evaluations.increment();
+
+        if (matched) {
+            s.matches.increment();
+            s.notifications.increment(cost.notifications());
+            s.taskWrites.add(cost.taskWrites());
+        }
+    }
+
+    private void checkBudget(RuleStats s, long elapsedNanos) {
+
+        if (latencyBudgetMs <= 0) {
+            return;
+        }
+
+        // Evaluated again after being switched off -> someone re-enabled it
+        if (s.disabled.get()) {
+            s.disabled.set(false);
+            s.slow = false;
+            s.overBudget.set(0);
+        }
+
+        if (elapsedNanos <= TimeUnit.MILLISECONDS.toNanos(latencyBudgetMs)) {
+            s.overBudget.set(0);
+            return;
+        }
+
+        if (s.overBudget.incrementAndGet() < slowAfter || s.slow) {
+            return;
+        }
+
+        s.slow = true;
+        s.flaggedAt = Instant.now();
+        log.warn("Workflow rule {} ({}) exceeded the {} ms budget {} times in a row",
+                s.ruleId, s.eventType, latencyBudgetMs, slowAfter);
+
+        if (autoDisableSlow && s.disabled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("workflow-rule-disable-" + s.ruleId).start(() -> disable(s));
+        }
+    }
+
+    private void disable(RuleStats s) {
+        try {
+            if (workflowRuleRepository.disable(s.ruleId, Instant.now()) > 0) {
+                workflowRuleRegistry.reload();
+                log.warn("Workflow rule {} auto-disabled as slow", s.ruleId);
+            }
+        } catch (Exception e) {
+            // Left enabled: the next run of slow evaluations flags it again
+            s.disabled.set(false);
+            s.slow = false;
+            log.error("Could not auto-disable workflow rule {}: {}", s.ruleId, e.getMessage());
+        }
+    }
+
+    // ========================= CLEANUP =========================
+    private void dropDeleted(WorkflowRuleRegistry.Snapshot snapshot) {
+
+        stats.entrySet().removeIf(e -> {
+            boolean deleted = !snapshot.ruleIds().contains(e.getKey());
+            if (deleted) {
+                e.getValue().meters.forEach(meterRegistry::remove);
+            }
+            return deleted;
+        });
+
+        shadowStats.entrySet().removeIf(e -> {
+            boolean deleted = !snapshot.ruleIds().contains(e.getKey());
+            if (deleted) {
+                e.getValue().meters.forEach(meterRegistry::remove);
+            }
+            return deleted;
+        });
+    }
+
+    // ========================= READ =========================
+    public List<WorkflowRuleMetricsDTO> snapshot() {
+
+        return stats.values().stream()
+                .sorted(Comparator.comparing((RuleStats s) -> s.actionTime.totalTime(TimeUnit.NANOSECONDS)
+                        + s.conditionTime.totalTime(TimeUnit.NANOSECONDS)).reversed())
+                .map(s -> new WorkflowRuleMetricsDTO(
+                        s.ruleId,
+                        s.eventType,
+                        (long) s.evaluations.count(),
+                        (long) s.matches.count(),
+                        (long) s.actionExecutions.count(),
+                        (long) s.failures.count(),
+                        s.conditionTime.mean(TimeUnit.MICROSECONDS),
+                        s.actionTime.mean(TimeUnit.MICROSECONDS),
+                        s.actionTime.max(TimeUnit.MICROSECONDS),
+                        s.slow,
+                        s.disabled.get(),
+                        s.flaggedAt
+                ))
+                .toList();
+    }
+
+    public List<WorkflowShadowRuleDTO> shadowSnapshot() {
+
+        return shadowStats.values().stream()
+                .sorted(Comparator.comparing((ShadowStats s) -> s.ruleId))
+                .map(s -> new WorkflowShadowRuleDTO(
+                        s.ruleId,
+                        s.eventType,
+                        s.evaluations.sum(),
+                        (long) s.matches.count(),
+                        (long) s.notifications.count(),
+                        s.taskWrites.sum(),
+                        s.since
+                ))
+                .toList();
+    }
+
+    private static final class RuleStats {
+
+        private final Long ruleId;
+        private final WorkflowEventType eventType;
+
+        private final Counter evaluations;
+        private final Counter matches;
+        private final Counter actionExecutions;
+        private final Counter failures;
+        private final Timer conditionTime;
+        private final Timer actionTime;
+
+        private final List<Meter> meters;
+
+        private final AtomicInteger overBudget = new AtomicInteger();
+        private final AtomicBoolean disabled = new AtomicBoolean();
+        private volatile boolean slow;
+        private volatile Instant flaggedAt;
+
+        private RuleStats(Long ruleId, WorkflowEventType eventType, MeterRegistry registry) {
+
+            this.ruleId = ruleId;
+            this.eventType = eventType;
+
+            Tags tags = Tags.of("rule", String.valueOf(ruleId), "eventType", eventType.name());
+
+            this.evaluations = registry.counter("workflow.rule.evaluations", tags);
+            this.matches = registry.counter("workflow.rule.matches", tags);
+            this.actionExecutions = registry.counter("workflow.rule.actions", tags);
+            this.failures = registry.counter("workflow.rule.failures", tags);
+            this.conditionTime = Timer.builder("workflow.rule.condition.time")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.actionTime = Timer.builder("workflow.rule.action.time")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry);
+
+            Gauge slowGauge = Gauge.builder("workflow.rule.slow", this, s -> s.slow ? 1 : 0)
+                    .tags(tags)
+                    .register(registry);
+
+            this.meters = List.of(evaluations, matches, actionExecutions, failures, conditionTime, actionTime, slowGauge);
+        }
+    }
+
+    private static final class ShadowStats {
+
+        private final Long ruleId;
+        private final WorkflowEventType eventType;
+        private final Instant since = Instant.now();
+
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder taskWrites = new LongAdder();
+        private final Counter matches;
+        private final Counter notifications;
+        private final List<Meter> meters;
+
+        private ShadowStats(Long ruleId, WorkflowEventType eventType, MeterRegistry registry) {
+
+            this.ruleId = ruleId;
+            this.eventType = eventType;
+
+            Tags tags = Tags.of("rule", String.valueOf(ruleId), "eventType", eventType.name());
+
+            this.matches = registry.counter("workflow.rule.shadow.matches", tags);
+            this.notifications = registry.counter("workflow.rule.shadow.notifications", tags);
+            this.meters = List.of(matches, notifications);
+        }
+    }
+}
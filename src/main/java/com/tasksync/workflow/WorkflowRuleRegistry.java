@@ -0,0 +1,206 @@
+package com.tasksync.workflow;
+
+import com.tasksync.entity.WorkflowEventType;
+import com.tasksync.entity.WorkflowRule;
+import com.tasksync.repository.WorkflowRuleRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory registry of compiled, enabled workflow rules keyed by event type.
+ * <p>
+ * Rules are loaded once and swapped in as a whole snapshot, so readers never see a
+ * half-built rule set. Each node compares a DB fingerprint of the rule table on a
+ * fixed delay and reloads when it differs, which is how a cluster converges after a
+ * rule is edited on another node.
+ * <p>
+ * Disabled rules are compiled into a separate shadow index so they can be evaluated
+ * without running their actions. Listeners registered with {@link #onReload} get
+ * every new snapshot, e.g. to drop state kept for rules that were deleted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowRuleRegistry {
+
+    private final WorkflowRuleRepository workflowRuleRepository;
+    private final WorkflowRuleCompiler workflowRuleCompiler;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    // ========================= LOOKUP =========================
+    public List<CompiledWorkflowRule> rulesFor(WorkflowEventType eventType) {
+        return current().rules().getOrDefault(eventType, List.of());
+    }
+
+    public RuleIndex indexFor(WorkflowEventType eventType) {
+        return current().indexes().getOrDefault(eventType, RuleIndex.EMPTY);
+    }
+
+    public CompiledWorkflowRule find(Long ruleId) {
+        return current().byId().get(ruleId);
+    }
+
+    public RuleIndex shadowIndexFor(WorkflowEventType eventType) {
+        return current().shadowIndexes().getOrDefault(eventType, RuleIndex.EMPTY);
+    }
+
+    public Snapshot current() {
+
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                s = snapshot;
+                if (s == null) {
+                    s = reload();
+                }
+            }
+        }
+        return s;
+    }
+
+    public void onReload(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+    }
+
+    // ========================= RELOAD =========================
+    public synchronized Snapshot reload() {
+
+        String fingerprint = readFingerprint();
+        List<WorkflowRule> rules = workflowRuleRepository.findByEnabledTrueOrderByIdAsc();
+        List<WorkflowRule> disabled = workflowRuleRepository.findByEnabledFalseOrderByIdAsc();
+
+        // Every rule still in the table, compiled or not
+        Set<Long> ruleIds = new HashSet<>();
+        rules.forEach(rule -> ruleIds.add(rule.getId()));
+        disabled.forEach(rule -> ruleIds.add(rule.getId()));
+
+        Map<WorkflowEventType, List<CompiledWorkflowRule>> byEvent = new EnumMap<>(WorkflowEventType.class);
+        int skipped = 0;
+
+        for (WorkflowRule rule : rules) {
+            try {
+                byEvent.computeIfAbsent(rule.getEventType(), e -> new ArrayList<>())
+                        .add(workflowRuleCompiler.compile(rule));
+            } catch (Exception e) {
+                skipped++;
+                log.error("Workflow rule {} could not be compiled and is skipped: {}", rule.getId(), e.getMessage());
+            }
+        }
+
+        byEvent.replaceAll((type, list) -> List.copyOf(list));
+
+        Map<WorkflowEventType, RuleIndex> indexes = new EnumMap<>(WorkflowEventType.class);
+        byEvent.forEach((type, list) -> indexes.put(type, new RuleIndex(list)));
+
+        Map<WorkflowEventType, RuleIndex> shadowIndexes = compileShadow(disabled);
+
+        Map<Long, CompiledWorkflowRule> byId = new HashMap<>();
+        byEvent.values().forEach(list -> list.forEach(rule -> byId.put(rule.id(), rule)));
+
+        Snapshot next = new Snapshot(
+                version.incrementAndGet(),
+                fingerprint,
+                Instant.now(),
+                Collections.unmodifiableMap(byEvent),
+                Collections.unmodifiableMap(indexes),
+                Collections.unmodifiableMap(shadowIndexes),
+                Collections.unmodifiableMap(byId),
+                Set.copyOf(ruleIds),
+                skipped
+        );
+
+        snapshot = next;
+
+        log.info("Workflow rules loaded: version={}, rules={}, skipped={}", next.version(), next.ruleCount(), skipped);
+
+        for (Consumer<Snapshot> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (Exception e) {
+                log.error("Workflow rule reload listener failed: {}", e.getMessage());
+            }
+        }
+        return next;
+    }
+
+    private Map<WorkflowEventType, RuleIndex> compileShadow(List<WorkflowRule> disabled) {
+
+        Map<WorkflowEventType, List<CompiledWorkflowRule>> byEvent = new EnumMap<>(WorkflowEventType.class);
+
+        for (WorkflowRule rule : disabled) {
+            try {
+                byEvent.computeIfAbsent(rule.getEventType(), e -> new ArrayList<>())
+                        .add(workflowRuleCompiler.compile(rule));
+            } catch (Exception e) {
+                log.debug("Disabled workflow rule {} not shadowed: {}", rule.getId(), e.getMessage());
+            }
+        }
+
+        Map<WorkflowEventType, RuleIndex> indexes = new EnumMap<>(WorkflowEventType.class);
+        byEvent.forEach((type, list) -> indexes.put(type, new RuleIndex(list)));
+        return indexes;
+    }
+
+    // ========================= STALENESS CHECK =========================
+    @Scheduled(fixedDelayString = "${app.workflow.rules.refresh-check-ms:30000}")
+    public void reloadIfStale() {
+
+        Snapshot s = snapshot;
+        if (s == null) {
+            return; // not loaded yet, first lookup will load
+        }
+
+        try {
+            if (!s.sourceFingerprint().equals(readFingerprint())) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("Workflow rule staleness check failed: {}", e.getMessage());
+        }
+    }
+
+    private String readFingerprint() {
+
+        List<Object[]> rows = workflowRuleRepository.fingerprint();
+        return rows.isEmpty() ? "" : Arrays.toString(rows.get(0));
+    }
+
+    // ========================= SNAPSHOT =========================
+    public record Snapshot(
+            long version,
+            String sourceFingerprint,
+            Instant loadedAt,
+            Map<WorkflowEventType, List<CompiledWorkflowRule>> rules,
+            Map<WorkflowEventType, RuleIndex> indexes,
+            Map<WorkflowEventType, RuleIndex> shadowIndexes,
+            Map<Long, CompiledWorkflowRule> byId,
+            Set<Long> ruleIds,
+            int skipped
+    ) {
+
+        public int ruleCount() {
+            return rules.values().stream().mapToInt(List::size).sum();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tasksync.workflow;
+
+import com.tasksync.entity.Notification;
+import com.tasksync.entity.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the writes produced by all rules matched for one event so they can be
+ * flushed together: each touched task is saved once and notifications go out as one
+ * batch. Delayed actions are collected as timer requests and persisted with the
+ * flush. Not thread-safe; one instance per event.
+ */
+public class WorkflowUnitOfWork {
+
+    private final Set<Task> dirtyTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Notification> notifications = new ArrayList<>();
+    private final List<TimerRequest> timers = new ArrayList<>();
+
+    // Number of writes the actions asked for, before coalescing
+    private int requestedTaskWrites;
+
+    public void markDirty(Task task) {
+        requestedTaskWrites++;
+        dirtyTasks.add(task);
+    }
+
+    public void addNotification(Notification notification) {
+        notifications.add(notification);
+    }
+
+    public void addTimer(TimerRequest timer) {
+        timers.add(timer);
+    }
+
+    public Set<Task> getDirtyTasks() {
+        return dirtyTasks;
+    }
+
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public List<TimerRequest> getTimers() {
+        return timers;
+    }
+
+    public int getRequestedTaskWrites() {
+        return requestedTaskWrites;
+    }
+
+    public boolean isEmpty() {
+        return dirtyTasks.isEmpty() && notifications.isEmpty() && timers.isEmpty();
+    }
+
+    public record TimerRequest(Long ruleId, long taskId, DelayedAction delayed) {
+    }
+}
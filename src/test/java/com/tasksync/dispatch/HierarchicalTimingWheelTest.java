@@ -0,0 +1,194 @@
+package com.tasksync.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Steps a driverless wheel with a 1 ms tick, so a deadline in epoch millis is its tick.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long LEVEL_1 = 64;
+    private static final long LEVEL_2 = 64 * LEVEL_1;
+    private static final long LEVEL_3 = 64 * LEVEL_2;
+    private static final long LEVEL_4 = 64 * LEVEL_3;
+    private static final long LEVEL_5 = 64 * LEVEL_4;
+    private static final long BEYOND_TOP = 64 * LEVEL_5;
+
+    // Not aligned to any level, so the lower levels wrap at arbitrary points
+    private static final long START = 123_456_789L;
+
+    private final List<String> fired = new ArrayList<>();
+
+    // ========================= PLACEMENT =========================
+    @Test
+    void delayPicksTheLevel() {
+
+        HierarchicalTimingWheel<String> wheel = wheelAt(START);
+
+        assertThat(schedule(wheel, "past", START - 100).level()).isZero();
+        assertThat(schedule(wheel, "1", START + 1).level()).isZero();
+        assertThat(schedule(wheel, "63", START + 63).level()).isZero();
+        assertThat(schedule(wheel, "64", START + LEVEL_1).level()).isEqualTo(1);
+        assertThat(schedule(wheel, "4095", START + LEVEL_2 - 1).level()).isEqualTo(1);
+        assertThat(schedule(wheel, "4096", START + LEVEL_2).level()).isEqualTo(2);
+        assertThat(schedule(wheel, "l3", START + LEVEL_3).level()).isEqualTo(3);
+        assertThat(schedule(wheel, "l4", START + LEVEL_4).level()).isEqualTo(4);
+        assertThat(schedule(wheel, "l5", START + LEVEL_5).level()).isEqualTo(5);
+        assertThat(schedule(wheel, "beyond", START + 3 * BEYOND_TOP).level()).isEqualTo(5);
+
+        assertThat(wheel.size()).isEqualTo(10);
+    }
+
+    // ========================= FIRING =========================
+    @Test
+    void firesExactlyAtTheDeadlineAfterCascading() {
+
+        HierarchicalTimingWheel<String> wheel = wheelAt(START);
+        long[] delays = {1, 63, 64, 100, 4095, 4096, 5000, 262_143, 262_144, 300_000};
+
+        for (long delay : delays) {
+            schedule(wheel, String.valueOf(delay), START + delay);
+        }
+
+        for (long delay : delays) {
+            wheel.advanceTo(START + delay - 1);
+            assertThat(fired).doesNotContain(String.valueOf(delay));
+
+            wheel.advanceTo(START + delay);
+            assertThat(fired).endsWith(String.valueOf(delay));
+        }
+
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+
+        HierarchicalTimingWheel<String> wheel = wheelAt(START);
+        schedule(wheel, "late", START - 100);
+
+        wheel.advanceTo(START + 1);
+
+        assertThat(fired).containsExactly("late");
+    }
+
+    // Each level's slot is cascaded when the level below wraps; start two ticks before that
+    @Test
+    void wrapCascadesEveryLevelOneDown() {
+
+        long[] widths = {LEVEL_1, LEVEL_2, LEVEL_3, LEVEL_4, LEVEL_5};
+
+        for (int level = 1; level <= 5; level++) {
+
+            long width = widths[level - 1];
+            long boundary = 7 * width;
+
+            HierarchicalTimingWheel<String> wheel = wheelAt(boundary - 2);
+
+            // Delta of width + 1 puts it on this level, in the slot that opens at boundary
+            HierarchicalTimingWheel.Timeout<String> timeout = schedule(wheel, "t", boundary + width - 1);
+            assertThat(timeout.level()).isEqualTo(level);
+
+            wheel.advanceTo(boundary);
+
+            assertThat(timeout.level()).as("level %d after wrap", level).isEqualTo(level - 1);
+            assertThat(fired).isEmpty();
+        }
+    }
+
+    @Test
+    void delayBeyondTheTopLevelGoesRoundAgain() {
+
+        long boundary = 5 * LEVEL_5;
+        HierarchicalTimingWheel<String> wheel = wheelAt(boundary - 2);
+
+        // Shares the top-level slot that opens at boundary, but is a full turn later
+        HierarchicalTimingWheel.Timeout<String> far = schedule(wheel, "far", boundary + BEYOND_TOP + LEVEL_5 - 2);
+        assertThat(far.level()).isEqualTo(5);
+
+        wheel.advanceTo(boundary + 2);
+
+        assertThat(fired).isEmpty();
+        assertThat(far.level()).isEqualTo(5);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void equalDeadlinesFireInScheduleOrder() {
+
+        HierarchicalTimingWheel<String> wheel = wheelAt(START);
+
+        // Level 0 directly, and level 2 through two cascades
+        for (String name : List.of("a", "b", "c")) {
+            schedule(wheel, name, START + 10);
+        }
+        for (String name : List.of("d", "e", "f", "g")) {
+            schedule(wheel, name, START + 5000);
+        }
+
+        wheel.advanceTo(START + 10);
+        assertThat(fired).containsExactly("a", "b", "c");
+
+        wheel.advanceTo(START + 5000);
+        assertThat(fired).containsExactly("a", "b", "c", "d", "e", "f", "g");
+    }
+
+    // ========================= CANCEL =========================
+    @Test
+    void cancelUnlinksHeadMiddleAndTail() {
+
+        HierarchicalTimingWheel<String> wheel = wheelAt(START);
+
+        List<HierarchicalTimingWheel.Timeout<String>> timeouts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            timeouts.add(schedule(wheel, "t" + i, START + 10));
+        }
+
+        assertThat(timeouts.get(0).cancel()).isTrue();  // head
+        assertThat(timeouts.get(2).cancel()).isTrue();  // middle
+        assertThat(timeouts.get(4).cancel()).isTrue();  // tail
+        assertThat(timeouts.get(2).cancel()).isFalse(); // already cancelled
+        assertThat(wheel.size()).isEqualTo(2);
+
+        wheel.advanceTo(START + 10);
+
+        assertThat(fired).containsExactly("t1", "t3");
+        assertThat(timeouts.get(1).cancel()).isFalse(); // already fired
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimerIsNotCascaded() {
+
+        HierarchicalTimingWheel<String> wheel = wheelAt(START);
+
+        HierarchicalTimingWheel.Timeout<String> keep = schedule(wheel, "keep", START + 5000);
+        HierarchicalTimingWheel.Timeout<String> drop = schedule(wheel, "drop", START + 5000);
+        assertThat(drop.cancel()).isTrue();
+
+        wheel.advanceTo(START + 5000);
+
+        assertThat(fired).containsExactly("keep");
+        assertThat(keep.cancel()).isFalse();
+    }
+
+    // ========================= HELPERS =========================
+    private HierarchicalTimingWheel<String> wheelAt(long startTick) {
+        return new HierarchicalTimingWheel<>("test", 1, fired::add, new SimpleMeterRegistry(), startTick, false);
+    }
+
+    private static HierarchicalTimingWheel.Timeout<String> schedule(
+            HierarchicalTimingWheel<String> wheel,
+            String name,
+            long tick
+    ) {
+        return wheel.schedule(name, Instant.ofEpochMilli(tick));
+    }
+}
@@ -0,0 +1,290 @@
+package com.tasksync.scheduler;
+
+import com.tasksync.TasksyncApplication;
+import com.tasksync.entity.Project;
+import com.tasksync.entity.Task;
+import com.tasksync.entity.User;
+import com.tasksync.repository.ProjectRepository;
+import com.tasksync.repository.SchedulerLeaseRepository;
+import com.tasksync.repository.TaskRepository;
+import com.tasksync.repository.UserRepository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application nodes sharing one embedded H2 database.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SlaClusterTest {
+
+    private static final int PARTITIONS = 8;
+    private static final long LEASE_TTL_MS = 60_000;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) nodeB.close();
+        if (nodeA != null) nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+
+        // Command-line arguments so they win over src/test/resources/application.properties
+        return new SpringApplicationBuilder(TasksyncApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:sla-cluster;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--app.sla.cluster.mode=PARTITIONED",
+                "--app.sla.cluster.node-id=" + nodeId,
+                "--app.sla.cluster.partitions=" + PARTITIONS,
+                "--app.sla.cluster.lease-ttl-ms=" + LEASE_TTL_MS,
+                // Scheduled jobs run once on startup, the test drives them after that
+                "--app.sla.cluster.heartbeat-ms=3600000",
+                "--app.sla.reconcile-ms=3600000"
+        );
+    }
+
+    // ========================= PARTITIONED SCAN =========================
+    @Test
+    @Order(1)
+    void partitionsAreSplitBetweenNodes() {
+
+        SlaPartitionCoordinator a = nodeA.getBean(SlaPartitionCoordinator.class);
+        SlaPartitionCoordinator b = nodeB.getBean(SlaPartitionCoordinator.class);
+
+        // Whoever started last holds everything; the surplus is released on one
+        // heartbeat and picked up by the other node on the next
+        for (int round = 0; round < 2; round++) {
+            a.heartbeat();
+            b.heartbeat();
+        }
+
+        List<Integer> ownedA = a.currentAssignment().owned();
+        List<Integer> ownedB = b.currentAssignment().owned();
+
+        assertThat(ownedA).hasSize(PARTITIONS / 2);
+        assertThat(ownedB).hasSize(PARTITIONS / 2);
+        assertThat(ownedA).doesNotContainAnyElementsOf(ownedB);
+
+        Set<Integer> all = new HashSet<>(ownedA);
+        all.addAll(ownedB);
+        assertThat(all).containsExactlyInAnyOrderElementsOf(
+                IntStream.range(0, PARTITIONS).boxed().toList());
+    }
+
+    @Test
+    @Order(2)
+    void concurrentScansBreachEachTaskOnce() {
+
+        List<Long> taskIds = createOverdueTasks("split", 6, 5);
+        int activitiesBefore = breachActivities();
+
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> nodeA.getBean(SlaScheduler.class).checkSlaBreaches()),
+                CompletableFuture.runAsync(() -> nodeB.getBean(SlaScheduler.class).checkSlaBreaches())
+        ).join();
+
+        TaskRepository tasks = nodeA.getBean(TaskRepository.class);
+        assertThat(tasks.findAllById(taskIds)).allMatch(Task::isSlaBreached);
+        assertThat(breachActivities() - activitiesBefore).isEqualTo(taskIds.size());
+    }
+
+    @Test
+    @Order(3)
+    void overlappingOwnersStillBreachEachTaskOnce() {
+
+        List<Long> taskIds = createOverdueTasks("overlap", 6, 5);
+        int activitiesBefore = breachActivities();
+        int breachEventsBefore = breachEvents();
+
+        // Both nodes believe they own every partition, as during a lease hand-over
+        SlaPartitionCoordinator.SlaPartitions all = new SlaPartitionCoordinator.SlaPartitions(
+                PARTITIONS, IntStream.range(0, PARTITIONS).boxed().toList());
+        forceAssignment(nodeA, all);
+        forceAssignment(nodeB, all);
+
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> nodeA.getBean(SlaScheduler.class).checkSlaBreaches()),
+                    CompletableFuture.runAsync(() -> nodeB.getBean(SlaScheduler.class).checkSlaBreaches())
+            ).join();
+        } finally {
+            // Next currentAssignment() heartbeats and takes the real leases again
+            forceValidUntil(nodeA, Instant.EPOCH);
+            forceValidUntil(nodeB, Instant.EPOCH);
+        }
+
+        TaskRepository tasks = nodeA.getBean(TaskRepository.class);
+        assertThat(tasks.findAllById(taskIds)).allMatch(Task::isSlaBreached);
+        assertThat(breachActivities() - activitiesBefore).isEqualTo(taskIds.size());
+        assertThat(breachEvents() - breachEventsBefore).isEqualTo(taskIds.size());
+    }
+
+    @Test
+    @Order(4)
+    void deadNodePartitionsMoveToSurvivor() throws InterruptedException {
+
+        SlaPartitionCoordinator a = nodeA.getBean(SlaPartitionCoordinator.class);
+        SlaPartitionCoordinator b = nodeB.getBean(SlaPartitionCoordinator.class);
+        SlaDeadlineIndex indexB = nodeB.getBean(SlaDeadlineIndex.class);
+
+        // An open deadline in one of A's partitions, unknown to B so far
+        a.heartbeat();
+        b.heartbeat();
+        createFutureTask(a.currentAssignment());
+        int trackedBefore = indexB.size();
+
+        // Node A stops heartbeating; once its leases lapse B picks them up
+        nodeA.getBean(JdbcTemplate.class).update(
+                "update scheduler_leases set expires_at = ? where owner = 'node-a'",
+                Timestamp.from(Instant.now().minusSeconds(1)));
+        b.heartbeat();
+
+        assertThat(b.currentAssignment().owned()).hasSize(PARTITIONS);
+
+        // B loads the deadlines of the partitions it took over
+        long waitUntil = System.currentTimeMillis() + 5000;
+        while (indexB.size() == trackedBefore && System.currentTimeMillis() < waitUntil) {
+            Thread.sleep(20);
+        }
+        assertThat(indexB.size()).isEqualTo(trackedBefore + 1);
+    }
+
+    // ========================= SINGLE LOCK =========================
+    @Test
+    @Order(5)
+    void singleLockModeHasOneHolder() {
+
+        SchedulerLeaseRepository leases = nodeA.getBean(SchedulerLeaseRepository.class);
+
+        SlaPartitionCoordinator first = singleLockNode(leases, "single-1");
+        SlaPartitionCoordinator second = singleLockNode(leases, "single-2");
+
+        first.heartbeat();
+        second.heartbeat();
+
+        assertThat(first.currentAssignment().owned()).containsExactly(0);
+        assertThat(second.currentAssignment().isEmpty()).isTrue();
+    }
+
+    private static SlaPartitionCoordinator singleLockNode(SchedulerLeaseRepository leases, String nodeId) {
+
+        SlaPartitionCoordinator coordinator = new SlaPartitionCoordinator(leases);
+        ReflectionTestUtils.setField(coordinator, "mode", SlaClusterMode.SINGLE);
+        ReflectionTestUtils.setField(coordinator, "nodeId", nodeId);
+        ReflectionTestUtils.setField(coordinator, "leaseTtlMs", 60_000L);
+        return coordinator;
+    }
+
+    // ========================= FIXTURES =========================
+    private static void forceAssignment(ConfigurableApplicationContext node, SlaPartitionCoordinator.SlaPartitions partitions) {
+        SlaPartitionCoordinator coordinator = node.getBean(SlaPartitionCoordinator.class);
+        ReflectionTestUtils.setField(coordinator, "assignment", partitions);
+        forceValidUntil(node, Instant.now().plusSeconds(3600));
+    }
+
+    private static void forceValidUntil(ConfigurableApplicationContext node, Instant validUntil) {
+        ReflectionTestUtils.setField(node.getBean(SlaPartitionCoordinator.class), "validUntil", validUntil);
+    }
+
+    private static int breachActivities() {
+        return nodeA.getBean(JdbcTemplate.class).queryForObject(
+                "select count(*) from task_activities where action = 'SLA breached for task'", Integer.class);
+    }
+
+    private static int breachEvents() {
+        return nodeA.getBean(JdbcTemplate.class).queryForObject(
+                "select count(*) from workflow_outbox where event_type = 'TASK_SLA_BREACHED'", Integer.class);
+    }
+
+    // Task with a deadline an hour out, in a project that falls in one of the given partitions
+    private static void createFutureTask(SlaPartitionCoordinator.SlaPartitions partitions) {
+
+        User manager = nodeA.getBean(UserRepository.class).findByUsername("split-manager").orElseThrow();
+        ProjectRepository projectRepository = nodeA.getBean(ProjectRepository.class);
+
+        Project project;
+        do {
+            project = new Project();
+            project.setName("Future project");
+            project.setManager(manager);
+            project = projectRepository.save(project);
+        } while (!partitions.owns(project.getId()));
+
+        Task task = new Task();
+        task.setTitle("Future deadline");
+        task.setProject(project);
+        task.setCreatedBy(manager);
+        task.setSlaHours(1);
+        task.setSlaDeadline(LocalDateTime.now().plusHours(1));
+        nodeA.getBean(TaskRepository.class).save(task);
+    }
+
+    private static List<Long> createOverdueTasks(String prefix, int projects, int tasksPerProject) {
+
+        UserRepository users = nodeA.getBean(UserRepository.class);
+        ProjectRepository projectRepository = nodeA.getBean(ProjectRepository.class);
+        TaskRepository taskRepository = nodeA.getBean(TaskRepository.class);
+
+        User manager = new User();
+        manager.setUsername(prefix + "-manager");
+        manager.setEmail(prefix + "-manager@example.com");
+        manager.setPassword("x");
+        manager = users.save(manager);
+
+        List<Task> created = new ArrayList<>();
+
+        for (int p = 0; p < projects; p++) {
+
+            Project project = new Project();
+            project.setName(prefix + " project " + p);
+            project.setManager(manager);
+            project = projectRepository.save(project);
+
+            for (int t = 0; t < tasksPerProject; t++) {
+
+                Task task = new Task();
+                task.setTitle(prefix + " overdue " + p + "-" + t);
+                task.setProject(project);
+                task.setCreatedBy(manager);
+                task.setSlaHours(1);
+                task.setSlaDeadline(LocalDateTime.now().minusHours(1));
+                created.add(task);
+            }
+        }
+
+        return taskRepository.saveAll(created).stream()
+                .map(Task::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,118 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.SlaCalendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledSlaCalendarTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    // Mon 2026-03-02 .. ; Fri 2026-03-06 is a holiday
+    private final CompiledSlaCalendar calendar = CompiledSlaCalendar.compile(
+            calendar(Set.of(LocalDate.of(2026, 3, 6))),
+            LocalDate.of(2026, 2, 23),
+            120
+    );
+
+    @Test
+    void deadlineSkipsNightsWeekendsAndHolidays() {
+
+        // Thu 16:00 + 4h: 1h Thu, Fri holiday, 3h Mon -> Mon 12:00
+        assertThat(plusHours(at(2026, 3, 5, 16, 0), 4)).isEqualTo(at(2026, 3, 9, 12, 0));
+
+        // Sat start waits for Mon 09:00
+        assertThat(plusHours(at(2026, 3, 7, 10, 0), 1)).isEqualTo(at(2026, 3, 9, 10, 0));
+
+        // Exactly one working day ends at close, not at the next opening
+        assertThat(plusHours(at(2026, 3, 2, 9, 0), 8)).isEqualTo(at(2026, 3, 2, 17, 0));
+    }
+
+    @Test
+    void deadlineAcrossDaylightSavingChange() {
+
+        // Clocks go forward on Sun 2026-03-29; working hours stay 09:00-17:00 local
+        assertThat(plusHours(at(2026, 3, 27, 15, 0), 4)).isEqualTo(at(2026, 3, 30, 11, 0));
+    }
+
+    @Test
+    void remainingTimeCountsWorkingSecondsOnly() {
+
+        Instant from = at(2026, 3, 5, 16, 0);
+        Instant to = at(2026, 3, 9, 12, 0);
+
+        assertThat(calendar.workingSecondsBetween(from, to)).isEqualTo(4 * 3600L);
+        assertThat(calendar.workingSecondsBetween(to, from)).isEqualTo(-4 * 3600L);
+    }
+
+    @Test
+    void matchesMinuteByMinuteWalk() {
+
+        Instant start = at(2026, 3, 4, 13, 37);
+
+        for (int minutes : new int[]{1, 59, 203, 480, 481, 2400, 9999}) {
+            assertThat(calendar.plusWorkingSeconds(start, minutes * 60L))
+                    .as("%d minutes", minutes)
+                    .isEqualTo(walk(start, minutes));
+        }
+    }
+
+    @Test
+    void beyondHorizonIsNull() {
+        assertThat(calendar.plusWorkingSeconds(at(2026, 3, 2, 9, 0), 10_000 * 3600L)).isNull();
+    }
+
+    // ========================= HELPERS =========================
+    private Instant plusHours(Instant start, int hours) {
+        return calendar.plusWorkingSeconds(start, hours * 3600L);
+    }
+
+    private static Instant at(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(ZONE).toInstant();
+    }
+
+    // Reference: step one minute at a time through working time
+    private static Instant walk(Instant start, int minutes) {
+
+        Instant t = start;
+        while (minutes > 0) {
+            LocalDateTime local = LocalDateTime.ofInstant(t, ZONE);
+            t = t.plusSeconds(60);
+            if (isWorking(local)) {
+                minutes--;
+            }
+        }
+        return t;
+    }
+
+    private static boolean isWorking(LocalDateTime local) {
+        return local.getDayOfWeek().getValue() <= 5
+                && !local.toLocalDate().equals(LocalDate.of(2026, 3, 6))
+                && !local.toLocalTime().isBefore(LocalTime.of(9, 0))
+                && local.toLocalTime().isBefore(LocalTime.of(17, 0));
+    }
+
+    private static SlaCalendar calendar(Set<LocalDate> holidays) {
+
+        SlaCalendar calendar = new SlaCalendar();
+        calendar.setId(1L);
+        calendar.setName("office");
+        calendar.setZoneId(ZONE.getId());
+        calendar.setWorkingDays(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        calendar.setWorkStart(LocalTime.of(9, 0));
+        calendar.setWorkEnd(LocalTime.of(17, 0));
+        calendar.setHolidays(holidays);
+        return calendar;
+    }
+}
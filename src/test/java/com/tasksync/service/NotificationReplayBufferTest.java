@@ -0,0 +1,144 @@
+package com.tasksync.service;
+
+import com.tasksync.dto.WsNotificationDTO;
+import com.tasksync.entity.NotificationType;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationReplayBufferTest {
+
+    private static final String USER = "alice";
+
+    // ========================= REPLAY WINDOW =========================
+    @Test
+    void beforeTheRingFillsEveryFrameSinceTheFirstIsHeld() {
+
+        NotificationReplayBuffer buffer = buffer(4);
+        List<WsNotificationDTO> frames = append(buffer, 3);
+        long first = frames.get(0).getSeq();
+
+        // oldest = first here; first - 1 is the boundary and still replays everything
+        assertThat(buffer.after(USER, first - 1)).containsExactlyElementsOf(frames);
+        assertThat(buffer.after(USER, first)).containsExactlyElementsOf(frames.subList(1, 3));
+        assertThat(buffer.after(USER, buffer.latest(USER))).isEmpty();
+    }
+
+    @Test
+    void afterRollingOverOnlyTheLastCapacityFramesAreHeld() {
+
+        NotificationReplayBuffer buffer = buffer(4);
+        List<WsNotificationDTO> frames = append(buffer, 10);
+        long first = frames.get(0).getSeq();
+
+        // oldest = next - capacity = first + 6
+        assertThat(buffer.after(USER, first + 5)).containsExactlyElementsOf(frames.subList(6, 10));
+        assertThat(buffer.after(USER, first + 4)).isNull();
+    }
+
+    @Test
+    void numbersFromAnotherStreamAreNotReplayed() {
+
+        NotificationReplayBuffer buffer = buffer(4);
+        List<WsNotificationDTO> frames = append(buffer, 2);
+        long first = frames.get(0).getSeq();
+
+        assertThat(buffer.after(USER, buffer.latest(USER) + 1)).isNull(); // ahead of this stream
+        assertThat(buffer.after(USER, first - 2)).isNull();               // from an older stream
+        assertThat(buffer.after("bob", first)).isNull();                   // no stream at all
+        assertThat(buffer.latest("bob")).isZero();
+    }
+
+    @Test
+    void capacityZeroNumbersFramesButReplaysNothing() {
+
+        NotificationReplayBuffer buffer = buffer(0);
+        List<WsNotificationDTO> frames = append(buffer, 2);
+
+        assertThat(frames.get(1).getSeq()).isEqualTo(frames.get(0).getSeq() + 1);
+        assertThat(buffer.after(USER, buffer.latest(USER))).isEmpty();
+        assertThat(buffer.after(USER, buffer.latest(USER) - 1)).isNull();
+    }
+
+    // ========================= EVICTION =========================
+    @Test
+    void streamHeldByAnAppendIsNotEvicted() throws Exception {
+
+        NotificationReplayBuffer buffer = buffer(4);
+        ReflectionTestUtils.setField(buffer, "idleMs", -60_000L); // every stream counts as idle
+
+        CountDownLatch handingOff = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WsNotificationDTO frame = frame();
+
+        CompletableFuture<Void> append = CompletableFuture.runAsync(() -> buffer.append(USER, frame, () -> {
+            handingOff.countDown();
+            await(release);
+        }));
+
+        assertThat(handingOff.await(5, TimeUnit.SECONDS)).isTrue();
+        buffer.evictIdle();
+        release.countDown();
+        append.get(5, TimeUnit.SECONDS);
+
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(buffer.latest(USER)).isEqualTo(frame.getSeq());
+        assertThat(buffer.after(USER, frame.getSeq() - 1)).containsExactly(frame);
+    }
+
+    @Test
+    void numbersKeepIncreasingAcrossEviction() {
+
+        NotificationReplayBuffer buffer = buffer(4);
+        ReflectionTestUtils.setField(buffer, "idleMs", -60_000L);
+
+        long before = append(buffer, 3).get(2).getSeq();
+
+        buffer.evictIdle();
+        assertThat(buffer.size()).isZero();
+
+        // Same millisecond or not, the new stream starts above the evicted one
+        long after = append(buffer, 1).get(0).getSeq();
+        assertThat(after).isGreaterThan(before);
+    }
+
+    // ========================= FIXTURES =========================
+    private static NotificationReplayBuffer buffer(int capacity) {
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer();
+        ReflectionTestUtils.setField(buffer, "capacity", capacity);
+        ReflectionTestUtils.setField(buffer, "idleMs", 3_600_000L);
+        return buffer;
+    }
+
+    private static List<WsNotificationDTO> append(NotificationReplayBuffer buffer, int count) {
+
+        List<WsNotificationDTO> frames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            WsNotificationDTO frame = frame();
+            buffer.append(USER, frame, () -> { });
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static WsNotificationDTO frame() {
+        return new WsNotificationDTO(1L, NotificationType.TASK_ASSIGNED, "m", 1L, 2L, Instant.now(), 1, 0L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.Project;
+import com.tasksync.entity.SlaCalendar;
+import com.tasksync.repository.ProjectRepository;
+import com.tasksync.repository.SlaCalendarRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlaCalendarServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+    private static final long CALENDAR_ID = 1L;
+
+    // Mon 2026-03-02 09:00
+    private static final Instant MONDAY = LocalDateTime.of(2026, 3, 2, 9, 0).atZone(ZONE).toInstant();
+
+    private final SlaCalendarRepository calendars = mock(SlaCalendarRepository.class);
+    private final SlaCalendarService service = new SlaCalendarService(calendars, mock(ProjectRepository.class));
+
+    private final Project project = new Project();
+
+    @BeforeEach
+    void setUp() {
+
+        SlaCalendar calendar = new SlaCalendar();
+        calendar.setId(CALENDAR_ID);
+        calendar.setName("office");
+        calendar.setZoneId(ZONE.getId());
+        calendar.setWorkingDays(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        calendar.setWorkStart(LocalTime.of(9, 0));
+        calendar.setWorkEnd(LocalTime.of(17, 0));
+
+        project.setSlaCalendar(calendar);
+        when(calendars.findCompleteById(CALENDAR_ID)).thenReturn(Optional.of(calendar));
+
+        // 7 days back + 28 ahead of the first start
+        ReflectionTestUtils.setField(service, "horizonDays", 35);
+        ReflectionTestUtils.setField(service, "refreshMs", 3_600_000L);
+    }
+
+    // ========================= HORIZON =========================
+    @Test
+    void cachedTableThatEndsTooSoonIsRecompiled() {
+
+        service.deadline(project, MONDAY, 8);
+
+        // Still covered by the cached table, but two working weeks run past its end
+        Instant later = MONDAY.plus(Duration.ofDays(21));
+        LocalDateTime due = service.deadline(project, later, 80);
+
+        // Mon 2026-03-23 09:00 + 80 working hours = Fri 2026-04-03 17:00
+        Instant expected = LocalDateTime.of(2026, 4, 3, 17, 0).atZone(ZONE).toInstant();
+        assertThat(due).isEqualTo(LocalDateTime.ofInstant(expected, ZoneId.systemDefault()));
+        verify(calendars, times(2)).findCompleteById(CALENDAR_ID);
+    }
+
+    @Test
+    void slaLongerThanAFreshTableStillFails() {
+
+        assertThatThrownBy(() -> service.deadline(project, MONDAY, 8 * 40))
+                .hasMessageContaining("exceeds the calendar horizon");
+    }
+}
@@ -0,0 +1,184 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.OutboxStatus;
+import com.tasksync.entity.Project;
+import com.tasksync.entity.Task;
+import com.tasksync.entity.TaskPriority;
+import com.tasksync.entity.User;
+import com.tasksync.entity.WorkflowEventType;
+import com.tasksync.entity.WorkflowOutboxEvent;
+import com.tasksync.repository.ProjectRepository;
+import com.tasksync.repository.TaskRepository;
+import com.tasksync.repository.UserRepository;
+import com.tasksync.repository.WorkflowOutboxRepository;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowEventResult;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay;DB_CLOSE_DELAY=-1",
+        "app.workflow.outbox.poll-ms=3600000"
+})
+class WorkflowOutboxServiceTest {
+
+    @Autowired
+    private WorkflowOutboxService workflowOutboxService;
+
+    @Autowired
+    private WorkflowOutboxRepository workflowOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockitoSpyBean
+    private WorkflowEngine workflowEngine;
+
+    @Test
+    void failingEventDoesNotRerunTheRestOfItsBatch() {
+
+        List<Task> tasks = createTasks("relay", 3);
+        long failingTaskId = tasks.get(1).getId();
+
+        Map<Long, Integer> runs = new ConcurrentHashMap<>();
+
+        doAnswer(invocation -> {
+
+            WorkflowContext context = invocation.getArgument(0);
+            runs.merge(context.taskId(), 1, Integer::sum);
+
+            WorkflowEventResult result = (WorkflowEventResult) invocation.callRealMethod();
+
+            if (context.taskId() == failingTaskId) {
+                try {
+                    // eventType is NOT NULL; the failed insert leaves the transaction rollback-only
+                    workflowOutboxRepository.save(new WorkflowOutboxEvent());
+                } catch (RuntimeException swallowed) {
+                    // as a rule catching its own error would
+                }
+            }
+            return result;
+        }).when(workflowEngine).handleEvent(any(WorkflowContext.class));
+
+        tasks.forEach(task -> workflowOutboxService.append(
+                WorkflowContext.forTask(WorkflowEventType.TASK_UPDATED, task)));
+
+        Map<Long, WorkflowOutboxEvent> byTask = outboxByTask();
+
+        assertThat(workflowOutboxService.relayDue()).isEqualTo(3);
+
+        assertThat(statusOf(byTask.get(tasks.get(0).getId()))).isEqualTo(OutboxStatus.DONE);
+        assertThat(statusOf(byTask.get(tasks.get(2).getId()))).isEqualTo(OutboxStatus.DONE);
+
+        WorkflowOutboxEvent failed = reload(byTask.get(failingTaskId));
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isNotNull();
+        assertThat(failed.getNextAttemptAt()).isAfter(Instant.now());
+
+        // Make the failed event due again: only it runs a second time
+        jdbc.update("update workflow_outbox set next_attempt_at = ? where id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), failed.getId());
+
+        assertThat(workflowOutboxService.relayDue()).isEqualTo(1);
+
+        assertThat(runs).containsExactlyInAnyOrderEntriesOf(Map.of(
+                tasks.get(0).getId(), 1,
+                failingTaskId, 2,
+                tasks.get(2).getId(), 1
+        ));
+        assertThat(reload(failed).getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void rulesSeeTheTaskAsItWasWhenTheEventWasRaised() {
+
+        Task task = createTasks("facts", 1).get(0);
+        task.setPriority(TaskPriority.HIGH);
+        task = taskRepository.save(task);
+
+        workflowOutboxService.append(WorkflowContext.forTask(WorkflowEventType.TASK_UPDATED, task));
+
+        // Changed again before the relay gets to it
+        task.setPriority(TaskPriority.LOW);
+        taskRepository.save(task);
+
+        List<WorkflowContext> seen = new ArrayList<>();
+        doAnswer(invocation -> {
+            seen.add(invocation.getArgument(0));
+            return invocation.callRealMethod();
+        }).when(workflowEngine).handleEvent(any(WorkflowContext.class));
+
+        assertThat(workflowOutboxService.relayDue()).isEqualTo(1);
+
+        assertThat(seen).singleElement().satisfies(context -> {
+            assertThat(context.priority()).isEqualTo(TaskPriority.HIGH);
+            assertThat(context.task().getPriority()).isEqualTo(TaskPriority.LOW);
+        });
+    }
+
+    // ========================= FIXTURES =========================
+    private List<Task> createTasks(String prefix, int count) {
+
+        User manager = new User();
+        manager.setUsername(prefix + "-manager");
+        manager.setEmail(prefix + "-manager@example.com");
+        manager.setPassword("x");
+        manager = userRepository.save(manager);
+
+        Project project = new Project();
+        project.setName("Outbox project");
+        project.setManager(manager);
+        project = projectRepository.save(project);
+
+        List<Task> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setTitle("Outbox task " + i);
+            task.setProject(project);
+            task.setCreatedBy(manager);
+            created.add(task);
+        }
+        return taskRepository.saveAll(created);
+    }
+
+    private Map<Long, WorkflowOutboxEvent> outboxByTask() {
+
+        Map<Long, WorkflowOutboxEvent> byTask = new HashMap<>();
+        workflowOutboxRepository.findAll().forEach(e -> byTask.put(e.getTaskId(), e));
+        return byTask;
+    }
+
+    private WorkflowOutboxEvent reload(WorkflowOutboxEvent event) {
+        return workflowOutboxRepository.findById(event.getId()).orElseThrow();
+    }
+
+    private OutboxStatus statusOf(WorkflowOutboxEvent event) {
+        return reload(event).getStatus();
+    }
+}
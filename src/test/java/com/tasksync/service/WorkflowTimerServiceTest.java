@@ -0,0 +1,172 @@
+package com.tasksync.service;
+
+import com.tasksync.entity.Task;
+import com.tasksync.entity.TaskStatus;
+import com.tasksync.entity.WorkflowEventType;
+import com.tasksync.entity.WorkflowTimer;
+import com.tasksync.repository.TaskRepository;
+import com.tasksync.repository.WorkflowTimerRepository;
+import com.tasksync.workflow.ActionPlan;
+import com.tasksync.workflow.CompiledWorkflowRule;
+import com.tasksync.workflow.DelayedAction;
+import com.tasksync.workflow.RuleCondition;
+import com.tasksync.workflow.WorkflowContext;
+import com.tasksync.workflow.WorkflowRuleRegistry;
+import com.tasksync.workflow.WorkflowUnitOfWork;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowTimerServiceTest {
+
+    private static final long RULE_ID = 11L;
+    private static final long TASK_ID = 7L;
+
+    private static final ActionPlan ESCALATE = new ActionPlan(List.of(), null, false, true, null);
+
+    private final WorkflowTimerRepository timers = mock(WorkflowTimerRepository.class);
+    private final TaskRepository tasks = mock(TaskRepository.class);
+    private final WorkflowRuleRegistry registry = mock(WorkflowRuleRegistry.class);
+    private final WorkflowActionExecutor executor = mock(WorkflowActionExecutor.class);
+
+    private final AtomicLong ids = new AtomicLong();
+    private WorkflowTimerService service;
+
+    @BeforeEach
+    void setUp() {
+
+        service = new WorkflowTimerService(timers, tasks, registry, executor, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "tickMillis", 10L);
+        service.start();
+
+        // saveAll hands back the rows with ids, as the database would
+        when(timers.saveAll(anyList())).thenAnswer(invocation -> {
+            List<WorkflowTimer> rows = invocation.getArgument(0);
+            rows.forEach(row -> row.setId(ids.incrementAndGet()));
+            return rows;
+        });
+
+        DelayedAction delayed = new DelayedAction(Duration.ofHours(4), TaskStatus.IN_PROGRESS, ESCALATE);
+        when(registry.find(RULE_ID)).thenReturn(new CompiledWorkflowRule(
+                RULE_ID,
+                WorkflowEventType.TASK_STATUS_CHANGED,
+                RuleCondition.ALWAYS,
+                new ActionPlan(List.of(), null, false, false, delayed)
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    // ========================= FIRE =========================
+    @Test
+    void dueTimerRunsTheDelayedActionsOnce() {
+
+        when(timers.claim(anyLong())).thenReturn(1);
+        when(tasks.findById(TASK_ID)).thenReturn(Optional.of(task(TaskStatus.IN_PROGRESS)));
+
+        service.schedule(List.of(request(Duration.ZERO, TaskStatus.IN_PROGRESS)));
+
+        verify(executor, timeout(2000)).execute(eq(ESCALATE), any(WorkflowContext.class));
+        verify(timers).claim(1L);
+        assertThat(service.pending()).isZero();
+    }
+
+    @Test
+    void timerClaimedElsewhereDoesNotRun() {
+
+        when(timers.claim(anyLong())).thenReturn(0);
+
+        service.schedule(List.of(request(Duration.ZERO, null)));
+
+        verify(timers, timeout(2000)).claim(1L);
+        verify(executor, after(200).never()).execute(any(ActionPlan.class), any(WorkflowContext.class));
+    }
+
+    @Test
+    void statusGuardIsCheckedAgainWhenTheTimerFires() {
+
+        when(timers.claim(anyLong())).thenReturn(1);
+        when(tasks.findById(TASK_ID)).thenReturn(Optional.of(task(TaskStatus.DONE)));
+
+        service.schedule(List.of(request(Duration.ZERO, TaskStatus.IN_PROGRESS)));
+
+        verify(timers, timeout(2000)).claim(1L);
+        verify(executor, after(200).never()).execute(any(ActionPlan.class), any(WorkflowContext.class));
+    }
+
+    // ========================= CANCEL =========================
+    @Test
+    void statusChangeCancelsOnlyTimersWhoseGuardNoLongerHolds() {
+
+        service.schedule(List.of(
+                request(Duration.ofHours(1), TaskStatus.IN_PROGRESS),
+                request(Duration.ofHours(1), TaskStatus.TODO),
+                request(Duration.ofHours(1), null)
+        ));
+        assertThat(service.pending()).isEqualTo(3);
+
+        service.onStatusChange(TASK_ID, TaskStatus.IN_PROGRESS);
+
+        verify(timers).deleteStale(TASK_ID, TaskStatus.IN_PROGRESS);
+        assertThat(service.pending()).isEqualTo(1);
+
+        // Another task's change leaves the rest alone
+        service.onStatusChange(TASK_ID + 1, TaskStatus.DONE);
+        assertThat(service.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void wheelEntriesAreCancelledOnlyOnceTheStatusChangeCommits() {
+
+        service.schedule(List.of(request(Duration.ofHours(1), TaskStatus.TODO)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onStatusChange(TASK_ID, TaskStatus.IN_PROGRESS);
+
+            verify(timers).deleteStale(TASK_ID, TaskStatus.IN_PROGRESS);
+            assertThat(service.pending()).isEqualTo(1); // a rollback would leave it armed
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(service.pending()).isZero();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ========================= FIXTURES =========================
+    private static WorkflowUnitOfWork.TimerRequest request(Duration delay, TaskStatus ifStatus) {
+        return new WorkflowUnitOfWork.TimerRequest(RULE_ID, TASK_ID, new DelayedAction(delay, ifStatus, ESCALATE));
+    }
+
+    private static Task task(TaskStatus status) {
+        Task task = new Task();
+        task.setId(TASK_ID);
+        task.setStatus(status);
+        return task;
+    }
+}